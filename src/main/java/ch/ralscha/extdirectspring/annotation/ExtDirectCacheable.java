@@ -0,0 +1,88 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the serialized result of an {@link ExtDirectMethod} on the server. The key of a
+ * cache entry is made from the action, the method and the data and metadata sent by the
+ * client. On a hit the router neither calls the method nor serializes the result again,
+ * it writes the cached JSON into the response.
+ * <p>
+ * Only successful results are cached. The JSON view of the method is applied before the
+ * result is stored. Results that are streamed ({@link java.util.stream.Stream},
+ * {@link java.util.Iterator}) are never cached.
+ * <p>
+ * Because the key only contains values sent by the client, the annotation is ignored with
+ * a warning on methods with parameters that are resolved on the server, like the request,
+ * the session, the locale, a header or the principal. It must not be used for methods
+ * whose result depends on the current user in another way. Not supported for FORM_POST
+ * and POLL methods.
+ */
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ExtDirectCacheable {
+
+	/**
+	 * (Optional) How long a cached result is used. The unit is specified with
+	 * {@link #timeUnit()}.
+	 * <p>
+	 * Defaults to 60.
+	 */
+	long timeToLive() default 60;
+
+	/**
+	 * (Optional) The unit of {@link #timeToLive()}.
+	 * <p>
+	 * Defaults to {@link TimeUnit#SECONDS}.
+	 */
+	TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+	/**
+	 * (Optional) How long an expired result is still returned. The first call after the
+	 * time to live is answered with the stale result and starts a refresh of the entry in
+	 * the background. The unit is specified with {@link #timeUnit()}.
+	 * <p>
+	 * Defaults to 0 (expired results are never returned).
+	 *
+	 * @see ch.ralscha.extdirectspring.controller.Configuration#setMaxConcurrentCacheRefreshes(int)
+	 */
+	long maxStaleness() default 0;
+
+	/**
+	 * (Optional) The maximum number of cached results of this method. The oldest entries
+	 * are removed when the limit is exceeded.
+	 * <p>
+	 * Defaults to 1000.
+	 */
+	int maxEntries() default 1000;
+
+	/**
+	 * (Optional) The maximum total length of all cached JSON results of this method in
+	 * characters. The oldest entries are removed when the limit is exceeded.
+	 * <p>
+	 * Defaults to 0 (only {@link #maxEntries()} limits the cache).
+	 */
+	long maxSize() default 0;
+
+}
@@ -66,6 +66,14 @@ public @interface ExtDirectMethod {
 	 */
 	boolean synchronizeOnSession() default false;
 
+	/**
+	 * (Optional) Only relevant if the method is synchronized on the session, either with
+	 * {@link #synchronizeOnSession()} or globally. If true the method only reads session
+	 * state and shares the session lock with other read-only methods, so they run in
+	 * parallel. Methods that are not read-only still run exclusively.
+	 */
+	boolean readOnly() default false;
+
 	/**
 	 * (Optional) Not feasible for FORM_POST methods. If true JSON responses will be
 	 * streamed into the response, without setting the Content-Length HTTP header. Default
@@ -74,6 +82,78 @@ public @interface ExtDirectMethod {
 	 */
 	boolean streamResponse() default false;
 
+	/**
+	 * (Optional) Not feasible for FORM_POST methods. Limits the number of calls of this
+	 * method that are executed at the same time. Calls that exceed the limit wait until a
+	 * running call finishes, as long as fewer than {@link #maxWaitingCalls()} calls are
+	 * already waiting. Otherwise the call is answered with an exception response.
+	 * <p>
+	 * Defaults to 0 (no limit).
+	 */
+	int maxConcurrentCalls() default 0;
+
+	/**
+	 * (Optional) Only feasible together with {@link #maxConcurrentCalls()}. The maximum
+	 * number of calls that wait for a free slot. Calls beyond this limit are rejected
+	 * immediately with an exception response.
+	 * <p>
+	 * Defaults to 0 (no waiting, calls are rejected as soon as the limit is reached).
+	 */
+	int maxWaitingCalls() default 0;
+
+	/**
+	 * (Optional) Not feasible for FORM_POST methods. If true calls of this method within
+	 * one batched request that have the same data and metadata are executed only once and
+	 * every transaction receives a copy of the response. Only enable this for methods
+	 * without side effects. Ignored for methods that return a
+	 * {@link java.util.stream.Stream} or an {@link java.util.Iterator}.
+	 */
+	boolean deduplicateCalls() default false;
+
+	/**
+	 * (Optional) Not feasible for FORM_POST methods. If true a call of this method that
+	 * arrives while an identical call (same data and metadata) from any client is still
+	 * running does not execute the method. It waits for the running call and returns the
+	 * same result. Only enable this for methods without side effects whose result does
+	 * not depend on the current user. A waiting call fails after the batched methods
+	 * timeout, or the client timeout if not set. Ignored with a warning for methods with
+	 * parameters that are not sent by the client, like the request, the session or the
+	 * principal. Ignored for methods that return a {@link java.util.stream.Stream} or an
+	 * {@link java.util.Iterator}.
+	 */
+	boolean singleFlight() default false;
+
+	/**
+	 * (Optional) Only feasible for POLL methods. If greater than 0 the method is a
+	 * broadcast poll provider that returns the same data for every client. The method is
+	 * called at most once per interval and event, the serialized response is sent to
+	 * every poll request for the event that arrives within the interval in milliseconds.
+	 * {@link ch.ralscha.extdirectspring.controller.PollEventNotifier#notifyChanged(String)}
+	 * discards the cached response of the event before the interval ends. The method must
+	 * not depend on request parameters, headers or the session.
+	 * <p>
+	 * Defaults to 0 (the method is called for every poll request).
+	 */
+	long broadcastInterval() default 0;
+
+	/**
+	 * (Optional) Only feasible for POLL methods. If greater than 0 a poll request is held
+	 * open without blocking a thread until the application calls
+	 * {@link ch.ralscha.extdirectspring.controller.PollEventNotifier#notifyChanged(String)}
+	 * for the event or this timeout in milliseconds passes. In both cases the method is
+	 * called and its result is sent to the client, which sends the next poll request
+	 * right away. Requires asynchronous request processing, otherwise the method is
+	 * called immediately.
+	 * <p>
+	 * Changes that are signaled while no request is parked are picked up by the next
+	 * timeout at the latest. Notifications only reach the requests parked on the node
+	 * they are signaled on, they are not sent through a
+	 * {@link ch.ralscha.extdirectspring.controller.PollEventBus}.
+	 * <p>
+	 * Defaults to 0 (long polling is disabled).
+	 */
+	long longPollingTimeout() default 0;
+
 	/**
 	 * (Optional) Only feasible for STORE_MODIFY methods. Specifies the type of an object
 	 * in a collection. If the generic type of a collection is an interface the library
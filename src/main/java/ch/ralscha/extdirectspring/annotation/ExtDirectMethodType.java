@@ -278,6 +278,25 @@ public enum ExtDirectMethodType {
 							+ "' does not support streamResponse attribute of @ExtDirectMethod");
 				}
 
+				if (extDirectMethodAnnotation.maxConcurrentCalls() > 0) {
+					log.warn("FORM_POST method '" + beanAndMethodName
+							+ "' does not support maxConcurrentCalls attribute of @ExtDirectMethod");
+				}
+
+				if (extDirectMethodAnnotation.deduplicateCalls()) {
+					log.warn("FORM_POST method '" + beanAndMethodName
+							+ "' does not support deduplicateCalls attribute of @ExtDirectMethod");
+				}
+
+				if (extDirectMethodAnnotation.singleFlight()) {
+					log.warn("FORM_POST method '" + beanAndMethodName
+							+ "' does not support singleFlight attribute of @ExtDirectMethod");
+				}
+
+				if (AnnotatedElementUtils.hasAnnotation(method, ExtDirectCacheable.class)) {
+					log.warn("FORM_POST method '" + beanAndMethodName + "' does not support @ExtDirectCacheable");
+				}
+
 			}
 			else {
 				log.error("FORM_POST method '" + beanAndMethodName
@@ -332,6 +351,10 @@ public enum ExtDirectMethodType {
 						+ "' does not support batched attribute of @ExtDirectMethod");
 			}
 
+			if (AnnotatedElementUtils.hasAnnotation(method, ExtDirectCacheable.class)) {
+				log.warn("POLL method '" + beanAndMethodName + "' does not support @ExtDirectCacheable");
+			}
+
 			return true;
 		}
 	},
@@ -0,0 +1,169 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.bean;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Result of a STORE_READ method whose records are written into the response one at a time
+ * while they are read from a {@link Stream} or an {@link Iterator}. The records are never
+ * held in memory together. The response of a method returning this class is always
+ * streamed.
+ * <p>
+ * The total can be specified up front or with a {@link LongSupplier} that is called after
+ * all records are written, for example to return the number of records the iterator
+ * produced. The stream and the iterator, if it is {@link AutoCloseable}, are closed after
+ * the response is written.
+ *
+ * @param <T> Type of the records
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder(value = { "metaData", "success", "records", "total", "message" })
+public class StreamingStoreResult<T> extends JsonViewHint implements AutoCloseable {
+
+	private final Iterator<T> records;
+
+	private final Stream<T> stream;
+
+	private Long total;
+
+	private LongSupplier totalSupplier;
+
+	private Boolean success = Boolean.TRUE;
+
+	private MetaData metaData;
+
+	private String message;
+
+	public StreamingStoreResult(Stream<T> records) {
+		this.stream = records;
+		this.records = records.iterator();
+	}
+
+	public StreamingStoreResult(Stream<T> records, Long total) {
+		this(records);
+		this.total = total;
+	}
+
+	public StreamingStoreResult(Stream<T> records, LongSupplier totalSupplier) {
+		this(records);
+		this.totalSupplier = totalSupplier;
+	}
+
+	public StreamingStoreResult(Iterator<T> records) {
+		this.stream = null;
+		this.records = records;
+	}
+
+	public StreamingStoreResult(Iterator<T> records, Long total) {
+		this(records);
+		this.total = total;
+	}
+
+	public StreamingStoreResult(Iterator<T> records, LongSupplier totalSupplier) {
+		this(records);
+		this.totalSupplier = totalSupplier;
+	}
+
+	public Iterator<T> getRecords() {
+		return this.records;
+	}
+
+	/**
+	 * Returns the total. If a total supplier is set it is called at this point, which is
+	 * after the records are written.
+	 * @return the total, null if no total is specified
+	 */
+	public Long getTotal() {
+		if (this.total == null && this.totalSupplier != null) {
+			this.total = this.totalSupplier.getAsLong();
+		}
+		return this.total;
+	}
+
+	public StreamingStoreResult<T> setTotal(Long total) {
+		this.total = total;
+		return this;
+	}
+
+	public StreamingStoreResult<T> setTotalSupplier(LongSupplier totalSupplier) {
+		this.totalSupplier = totalSupplier;
+		return this;
+	}
+
+	public Boolean isSuccess() {
+		return this.success;
+	}
+
+	public StreamingStoreResult<T> setSuccess(Boolean success) {
+		this.success = success;
+		return this;
+	}
+
+	public Map<String, Object> getMetaData() {
+		if (this.metaData != null) {
+			return this.metaData.getMetaData();
+		}
+		return null;
+	}
+
+	public StreamingStoreResult<T> setMetaData(MetaData metaData) {
+		this.metaData = metaData;
+		return this;
+	}
+
+	public String getMessage() {
+		return this.message;
+	}
+
+	public StreamingStoreResult<T> setMessage(String message) {
+		this.message = message;
+		return this;
+	}
+
+	/**
+	 * Closes the underlying stream and the iterator, if it is {@link AutoCloseable}.
+	 */
+	@Override
+	@JsonIgnore
+	public void close() throws Exception {
+		try {
+			if (this.records instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+		finally {
+			if (this.stream != null) {
+				this.stream.close();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "StreamingStoreResult [total=" + this.total + ", success=" + this.success + ", metaData=" + this.metaData
+				+ ", message=" + this.message + "]";
+	}
+
+}
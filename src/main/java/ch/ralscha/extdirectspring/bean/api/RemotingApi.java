@@ -50,6 +50,8 @@ public final class RemotingApi {
 
 	private Integer bufferLimit;
 
+	private String webSocketUrl;
+
 	private final List<PollingProvider> pollingProviders;
 
 	public RemotingApi(String type, String url, String namespace) {
@@ -140,6 +142,14 @@ public final class RemotingApi {
 		this.bufferLimit = bufferLimit;
 	}
 
+	public String getWebSocketUrl() {
+		return this.webSocketUrl;
+	}
+
+	public void setWebSocketUrl(String webSocketUrl) {
+		this.webSocketUrl = webSocketUrl;
+	}
+
 	@JsonIgnore
 	public List<PollingProvider> getPollingProviders() {
 		return this.pollingProviders;
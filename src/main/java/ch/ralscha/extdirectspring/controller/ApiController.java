@@ -210,6 +210,7 @@ public class ApiController {
 		Pattern stripApiRegex = STRIP_API_REGEX;
 		String routerUrl = stripApiRegex.matcher(requestUrlString).replaceFirst("") + "router";
 		String basePollUrl = stripApiRegex.matcher(requestUrlString).replaceFirst("") + "poll";
+		String pushUrl = stripApiRegex.matcher(requestUrlString).replaceFirst("") + "push";
 
 		if (!requestUrlString.contains("/api-debug-doc.js")) {
 			boolean debug = requestUrlString.contains("api-debug.js");
@@ -219,22 +220,24 @@ public class ApiController {
 			String apiString = this.apiCache.get(apiKey);
 			if (apiString == null || !cache) {
 				apiString = buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, basePollUrl,
-						group, debug, false, cache);
+						pushUrl, group, debug, false, cache);
 				this.apiCache.put(apiKey, apiString);
 			}
 			return apiString;
 		}
 
-		return buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, basePollUrl, group, true,
-				true, cache);
+		return buildApiString(apiNs, actionNs, remotingApiVar, pollingUrlsVar, routerUrl, basePollUrl, pushUrl, group,
+				true, true, cache);
 
 	}
 
 	private String buildApiString(String apiNs, @Nullable String actionNs, String remotingApiVar, String pollingUrlsVar,
-			String routerUrl, String basePollUrl, @Nullable String group, boolean debug, boolean doc, boolean cache) {
+			String routerUrl, String basePollUrl, String pushUrl, @Nullable String group, boolean debug, boolean doc,
+			boolean cache) {
 
 		RemotingApi remotingApi = new RemotingApi(this.configurationService.getConfiguration().getProviderType(),
 				routerUrl, actionNs);
+		remotingApi.setWebSocketUrl(createWebSocketUrl(routerUrl));
 
 		remotingApi.setTimeout(this.configurationService.getConfiguration().getTimeout());
 		remotingApi.setMaxRetries(this.configurationService.getConfiguration().getMaxRetries());
@@ -349,6 +352,32 @@ public class ApiController {
 				sb.append("\n");
 			}
 			sb.append("};");
+
+			String multiPollUrlVar = this.configurationService.getConfiguration().getMultiPollUrlVar();
+			if (StringUtils.hasText(multiPollUrlVar)) {
+
+				if (debug) {
+					sb.append("\n\n");
+				}
+
+				if (StringUtils.hasText(apiNs)) {
+					sb.append(apiNs).append(".");
+				}
+				sb.append(multiPollUrlVar).append(" = \"").append(basePollUrl).append("\";");
+			}
+		}
+
+		String pushUrlVar = this.configurationService.getConfiguration().getPushUrlVar();
+		if (StringUtils.hasText(pushUrlVar)) {
+
+			if (debug) {
+				sb.append("\n\n");
+			}
+
+			if (StringUtils.hasText(apiNs)) {
+				sb.append(apiNs).append(".");
+			}
+			sb.append(pushUrlVar).append(" = \"").append(pushUrl).append("\";");
 		}
 
 		return sb.toString();
@@ -368,6 +397,7 @@ public class ApiController {
 
 		RemotingApi remotingApi = new RemotingApi(this.configurationService.getConfiguration().getProviderType(),
 				routerUrl, actionNs);
+		remotingApi.setWebSocketUrl(createWebSocketUrl(routerUrl));
 
 		if (StringUtils.hasText(apiNs)) {
 			remotingApi.setDescriptor(apiNs + "." + remotingApiVar);
@@ -382,6 +412,21 @@ public class ApiController {
 
 	}
 
+	private @Nullable String createWebSocketUrl(String routerUrl) {
+		String webSocketPath = this.configurationService.getConfiguration().getWebSocketPath();
+		if (!StringUtils.hasText(webSocketPath)) {
+			return null;
+		}
+		String webSocketUrl = routerUrl.substring(0, routerUrl.lastIndexOf('/') + 1) + webSocketPath;
+		if (webSocketUrl.startsWith("http://")) {
+			return "ws://" + webSocketUrl.substring("http://".length());
+		}
+		if (webSocketUrl.startsWith("https://")) {
+			return "wss://" + webSocketUrl.substring("https://".length());
+		}
+		return webSocketUrl;
+	}
+
 	private void buildRemotingApi(RemotingApi remotingApi, @Nullable String requestedGroup, boolean cache) {
 		if (!cache || this.methodInfoCache.isEmpty()) {
 			this.methodInfoCache.populateMethodInfoCache(this.configurationService.getApplicationContext());
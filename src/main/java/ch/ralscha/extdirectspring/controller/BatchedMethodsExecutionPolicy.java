@@ -28,6 +28,21 @@ public enum BatchedMethodsExecutionPolicy {
 	/**
 	 * Executes methods concurrently in a thread pool
 	 */
-	CONCURRENT
+	CONCURRENT,
+
+	/**
+	 * Executes every method on its own virtual thread. Falls back to a cached thread pool
+	 * if the JVM does not support virtual threads.
+	 */
+	VIRTUAL_THREADS,
+
+	/**
+	 * Decides for every batch based on the observed execution times of the methods. A
+	 * batch whose expected total execution time is below
+	 * {@link Configuration#getAdaptiveExecutionThreshold()} runs on the request thread.
+	 * Otherwise only the methods that are expensive on their own are executed in the
+	 * thread pool and the cheap ones run on the request thread.
+	 */
+	ADAPTIVE
 
 }
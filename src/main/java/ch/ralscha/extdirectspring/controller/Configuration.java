@@ -23,8 +23,10 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
 import ch.ralscha.extdirectspring.bean.BaseResponse;
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
 import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
 import ch.ralscha.extdirectspring.bean.ExtDirectStoreResult;
 import ch.ralscha.extdirectspring.util.JsonHandler;
@@ -56,6 +58,20 @@ public class Configuration {
 
 	private String pollingUrlsVar = "POLLING_URLS";
 
+	private String multiPollUrlVar = null;
+
+	private String pushUrlVar = null;
+
+	private Long pushTimeout = null;
+
+	private ExecutorService pushExecutorService = null;
+
+	private int pushQueueCapacity = 100;
+
+	private String webSocketPath = null;
+
+	private boolean conditionalPolling = false;
+
 	private boolean fullRouterUrl = false;
 
 	private String baseRouterUrl = null;
@@ -76,8 +92,22 @@ public class Configuration {
 
 	private ExecutorService batchedMethodsExecutorService = null;
 
+	private Integer batchedMethodsTimeout = null;
+
+	private long adaptiveExecutionThreshold = 500;
+
+	private boolean pipelineBatchedMethods = false;
+
+	private boolean flushBatchedResponses = false;
+
+	private ExecutorService cacheRefreshExecutorService = null;
+
+	private int maxConcurrentCacheRefreshes = 2;
+
 	private String providerType = "remoting";
 
+	private int maxInFlightNdjsonCalls = 16;
+
 	private String frameDomain = null;
 
 	private String frameDomainScript = "<script type=\"text/javascript\">document.domain = '%s';</script>";
@@ -195,6 +225,8 @@ public class Configuration {
 	 * If synchronizeOnSession is true, execution of all methods is synchronized on the
 	 * session object. To serialize parallel invocations from the same client and to
 	 * prevent concurrency issues if the server accesses global or session resources.
+	 * Methods marked with {@link ExtDirectMethod#readOnly()} share a read lock and run in
+	 * parallel, all other methods are executed exclusively.
 	 * <p>
 	 * Instead of globally enable this it's possible to set the flag on a per method basis
 	 * with {@link ExtDirectMethod#synchronizeOnSession()}.
@@ -360,6 +392,14 @@ public class Configuration {
 	 * server. {@link BatchedMethodsExecutionPolicy#SEQUENTIAL} executes methods one after
 	 * the other. {@link BatchedMethodsExecutionPolicy#CONCURRENT} executes methods
 	 * concurrently with the help of a thread pool.
+	 * {@link BatchedMethodsExecutionPolicy#VIRTUAL_THREADS} executes every method on its
+	 * own virtual thread. {@link BatchedMethodsExecutionPolicy#ADAPTIVE} decides per
+	 * batch based on the observed execution times of the methods.
+	 * <p>
+	 * Methods that return a {@link java.util.concurrent.CompletionStage} release the
+	 * request thread only if no method of the batch runs on the executor, which is always
+	 * the case with SEQUENTIAL. Otherwise the request thread waits until all methods of
+	 * the batch are complete or the batchedMethodsTimeout expires.
 	 *
 	 * <p>
 	 * Default value is {@link BatchedMethodsExecutionPolicy#SEQUENTIAL}
@@ -382,7 +422,10 @@ public class Configuration {
 	 * If batchedMethodsExecutionPolicy is set to
 	 * {@link BatchedMethodsExecutionPolicy#CONCURRENT} but no
 	 * batchedMethodsExecutorService is specified the library creates a
-	 * {@link Executors#newFixedThreadPool(int)} with 5 threads.
+	 * {@link Executors#newFixedThreadPool(int)} with 5 threads. The same applies to
+	 * {@link BatchedMethodsExecutionPolicy#ADAPTIVE}. For
+	 * {@link BatchedMethodsExecutionPolicy#VIRTUAL_THREADS} the library creates an
+	 * executor that starts a new virtual thread for each method.
 	 *
 	 * @see #setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy)
 	 * @param batchedMethodsExecutorService the new thread pool
@@ -391,6 +434,149 @@ public class Configuration {
 		this.batchedMethodsExecutorService = batchedMethodsExecutorService;
 	}
 
+	public Integer getBatchedMethodsTimeout() {
+		return this.batchedMethodsTimeout;
+	}
+
+	/**
+	 * Sets the deadline in milliseconds for a batch of methods that are executed
+	 * concurrently. When the deadline expires the methods that are still running are
+	 * cancelled and answered with an exception response. The same happens when the
+	 * request thread is interrupted while it waits for the methods.
+	 * <p>
+	 * Default value is null (no deadline)
+	 *
+	 * @see #setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy)
+	 * @param batchedMethodsTimeout the deadline in milliseconds
+	 */
+	public void setBatchedMethodsTimeout(Integer batchedMethodsTimeout) {
+		this.batchedMethodsTimeout = batchedMethodsTimeout;
+	}
+
+	public long getAdaptiveExecutionThreshold() {
+		return this.adaptiveExecutionThreshold;
+	}
+
+	/**
+	 * Sets the threshold in microseconds the
+	 * {@link BatchedMethodsExecutionPolicy#ADAPTIVE} policy uses to decide if a method is
+	 * worth the hand-off to the thread pool. It should roughly match the cost of
+	 * dispatching a method to another thread and collecting the result. Methods that were
+	 * never called are always considered expensive.
+	 * <p>
+	 * Default value is 500
+	 *
+	 * @see #setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy)
+	 * @param adaptiveExecutionThreshold the threshold in microseconds
+	 */
+	public void setAdaptiveExecutionThreshold(long adaptiveExecutionThreshold) {
+		this.adaptiveExecutionThreshold = adaptiveExecutionThreshold;
+	}
+
+	public boolean isPipelineBatchedMethods() {
+		return this.pipelineBatchedMethods;
+	}
+
+	/**
+	 * If pipelineBatchedMethods is true, the router starts executing the methods of a
+	 * batched request while the rest of the request body is still being parsed. Every
+	 * call is handed to the configured {@link BatchedMethodsExecutionPolicy} as soon as
+	 * its JSON object is complete, instead of waiting for the whole batch.
+	 * <p>
+	 * If the request body contains invalid JSON, the methods that were parsed before the
+	 * error have already been executed and their responses are sent back to the client.
+	 * <p>
+	 * Default value is false
+	 *
+	 * @see #setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy)
+	 * @param pipelineBatchedMethods new flag
+	 */
+	public void setPipelineBatchedMethods(boolean pipelineBatchedMethods) {
+		this.pipelineBatchedMethods = pipelineBatchedMethods;
+	}
+
+	public boolean isFlushBatchedResponses() {
+		return this.flushBatchedResponses;
+	}
+
+	/**
+	 * If flushBatchedResponses is true, the router opens the JSON array of a batched
+	 * response immediately and writes and flushes every response as soon as the method
+	 * and all methods with a lower tid are finished. The client starts receiving bytes
+	 * early and the serialized responses are never held in memory together. The
+	 * Content-Length header is not set.
+	 * <p>
+	 * Asynchronous methods that return a {@link java.util.concurrent.CompletionStage}
+	 * still release the request thread, the responses are then written when all these
+	 * methods are complete.
+	 * <p>
+	 * Default value is false
+	 *
+	 * @see #setStreamResponse(boolean)
+	 * @param flushBatchedResponses new flag
+	 */
+	public void setFlushBatchedResponses(boolean flushBatchedResponses) {
+		this.flushBatchedResponses = flushBatchedResponses;
+	}
+
+	public ExecutorService getCacheRefreshExecutorService() {
+		return this.cacheRefreshExecutorService;
+	}
+
+	/**
+	 * Sets the thread pool that refreshes stale results of methods annotated with
+	 * {@link ExtDirectCacheable} with a maxStaleness.
+	 * <p>
+	 * If no cacheRefreshExecutorService is specified the library creates a
+	 * {@link Executors#newFixedThreadPool(int)} with
+	 * {@link #getMaxConcurrentCacheRefreshes()} threads.
+	 *
+	 * @see ExtDirectCacheable#maxStaleness()
+	 * @param cacheRefreshExecutorService the new thread pool
+	 */
+	public void setCacheRefreshExecutorService(ExecutorService cacheRefreshExecutorService) {
+		this.cacheRefreshExecutorService = cacheRefreshExecutorService;
+	}
+
+	public int getMaxConcurrentCacheRefreshes() {
+		return this.maxConcurrentCacheRefreshes;
+	}
+
+	/**
+	 * Sets the maximum number of stale cached results that are refreshed at the same
+	 * time. If the limit is reached the stale result is returned without starting a
+	 * refresh, a later call starts it.
+	 * <p>
+	 * Default value is 2
+	 *
+	 * @see ExtDirectCacheable#maxStaleness()
+	 * @param maxConcurrentCacheRefreshes new maximum, must be greater than 0
+	 */
+	public void setMaxConcurrentCacheRefreshes(int maxConcurrentCacheRefreshes) {
+		Assert.isTrue(maxConcurrentCacheRefreshes > 0, "maxConcurrentCacheRefreshes must be greater than 0");
+		this.maxConcurrentCacheRefreshes = maxConcurrentCacheRefreshes;
+	}
+
+	public int getMaxInFlightNdjsonCalls() {
+		return this.maxInFlightNdjsonCalls;
+	}
+
+	/**
+	 * Sets the maximum number of calls of a newline delimited JSON request to /router
+	 * that are executed at the same time. The next line of the request is only read after
+	 * a call finished if the limit is reached, so the memory used by a request does not
+	 * depend on the number of calls it contains. The calls run on the
+	 * {@link #setBatchedMethodsExecutorService(ExecutorService) batched methods
+	 * executor}, without executor they run one after the other.
+	 * <p>
+	 * Default value is 16
+	 * @param maxInFlightNdjsonCalls new maximum, must be greater than 0
+	 */
+	public void setMaxInFlightNdjsonCalls(int maxInFlightNdjsonCalls) {
+		Assert.isTrue(maxInFlightNdjsonCalls > 0, "maxInFlightNdjsonCalls must be greater than 0");
+		this.maxInFlightNdjsonCalls = maxInFlightNdjsonCalls;
+	}
+
 	public String getProviderType() {
 		return this.providerType;
 	}
@@ -491,6 +677,135 @@ public class Configuration {
 		this.pollingUrlsVar = pollingUrlsVar;
 	}
 
+	public String getMultiPollUrlVar() {
+		return this.multiPollUrlVar;
+	}
+
+	/**
+	 * Enables the combined poll endpoint /poll?events=event1,event2 and sets the name of
+	 * the variable in the api configuration that contains its url. One request to this
+	 * endpoint calls the POLL methods of all listed events concurrently with the
+	 * {@link #setBatchedMethodsExecutorService(ExecutorService) batched methods executor}
+	 * and returns an array of {@link ExtDirectPollResponse} objects.
+	 * <p>
+	 * If no batchedMethodsExecutorService is specified the library creates a
+	 * {@link Executors#newFixedThreadPool(int)} with 5 threads.
+	 * <p>
+	 * Defaults to null (the combined poll endpoint is disabled)
+	 * @param multiPollUrlVar new multi poll url variable name
+	 */
+	public void setMultiPollUrlVar(String multiPollUrlVar) {
+		this.multiPollUrlVar = multiPollUrlVar;
+	}
+
+	public String getPushUrlVar() {
+		return this.pushUrlVar;
+	}
+
+	/**
+	 * Enables the Server-Sent Events endpoint /push and sets the name of the variable in
+	 * the api configuration that contains its url. Clients open one connection to this
+	 * url and receive every {@link ExtDirectPollResponse} published with the
+	 * {@link PollEventPublisher}. The SSE event name is the name of the poll event.
+	 * <p>
+	 * Defaults to null (push is disabled)
+	 * @param pushUrlVar new push url variable name
+	 */
+	public void setPushUrlVar(String pushUrlVar) {
+		this.pushUrlVar = pushUrlVar;
+	}
+
+	public Long getPushTimeout() {
+		return this.pushTimeout;
+	}
+
+	/**
+	 * Sets the time in milliseconds after which the server closes a push connection. The
+	 * client reconnects automatically.
+	 * <p>
+	 * Defaults to null (the default timeout for asynchronous requests of Spring MVC)
+	 * @param pushTimeout new timeout in milliseconds
+	 */
+	public void setPushTimeout(Long pushTimeout) {
+		this.pushTimeout = pushTimeout;
+	}
+
+	public ExecutorService getPushExecutorService() {
+		return this.pushExecutorService;
+	}
+
+	/**
+	 * Sets the thread pool that sends the pushed events to the clients. A slow client
+	 * only delays its own events.
+	 * <p>
+	 * If push is enabled and no pushExecutorService is specified the library creates an
+	 * executor that starts a virtual thread for each task, or a
+	 * {@link Executors#newCachedThreadPool()} if the JVM does not support virtual
+	 * threads.
+	 *
+	 * @see #setPushUrlVar(String)
+	 * @param pushExecutorService the new thread pool
+	 */
+	public void setPushExecutorService(ExecutorService pushExecutorService) {
+		this.pushExecutorService = pushExecutorService;
+	}
+
+	public int getPushQueueCapacity() {
+		return this.pushQueueCapacity;
+	}
+
+	/**
+	 * Sets the maximum number of events that wait to be sent to one push client. Further
+	 * events for this client are dropped and logged until it catches up.
+	 * <p>
+	 * Default value is 100
+	 * @param pushQueueCapacity new capacity, must be greater than 0
+	 */
+	public void setPushQueueCapacity(int pushQueueCapacity) {
+		Assert.isTrue(pushQueueCapacity > 0, "pushQueueCapacity must be greater than 0");
+		this.pushQueueCapacity = pushQueueCapacity;
+	}
+
+	public String getWebSocketPath() {
+		return this.webSocketPath;
+	}
+
+	/**
+	 * Sets the path of the {@link WebSocketRouterHandler}, relative to the path of the
+	 * router, for example "websocket". If set the api configuration contains the url of
+	 * the WebSocket endpoint in the property webSocketUrl, a client side provider can use
+	 * it instead of the url of the router. The handler has to be registered on this path
+	 * with a
+	 * {@link org.springframework.web.socket.config.annotation.WebSocketConfigurer},
+	 * together with the {@link WebSocketHandshakeInterceptor} if the called methods need
+	 * the HTTP session.
+	 * <p>
+	 * Defaults to null (no WebSocket url in the api configuration)
+	 * @param webSocketPath new path of the WebSocket endpoint
+	 */
+	public void setWebSocketPath(String webSocketPath) {
+		this.webSocketPath = webSocketPath;
+	}
+
+	public boolean isConditionalPolling() {
+		return this.conditionalPolling;
+	}
+
+	/**
+	 * If true the response of a poll request for a single event gets an ETag header that
+	 * is a hash of the serialized {@link ExtDirectPollResponse}. A client that sends the
+	 * tag of its last response in the If-None-Match header receives a 304 Not Modified
+	 * response without a body as long as the poll data does not change. The poll method
+	 * is still called for every request, only the transfer of unchanged data is skipped.
+	 * Error responses never get a tag.
+	 * <p>
+	 * Default value is false
+	 * @param conditionalPolling new flag
+	 */
+	public void setConditionalPolling(boolean conditionalPolling) {
+		this.conditionalPolling = conditionalPolling;
+	}
+
 	public boolean isFullRouterUrl() {
 		return this.fullRouterUrl;
 	}
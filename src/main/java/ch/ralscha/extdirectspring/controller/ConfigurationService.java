@@ -15,9 +15,14 @@
  */
 package ch.ralscha.extdirectspring.controller;
 
+import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +31,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import ch.ralscha.extdirectspring.util.JsonHandler;
 import ch.ralscha.extdirectspring.util.ParametersResolver;
@@ -33,6 +39,8 @@ import ch.ralscha.extdirectspring.util.ParametersResolver;
 @Service
 public class ConfigurationService implements InitializingBean, DisposableBean {
 
+	private static final Log log = LogFactory.getLog(ConfigurationService.class);
+
 	@Autowired
 	private ApplicationContext context;
 
@@ -47,6 +55,10 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 
 	private ParametersResolver parametersResolver;
 
+	private SessionLockManager sessionLockManager;
+
+	private Semaphore cacheRefreshPermits;
+
 	@Override
 	public void afterPropertiesSet() {
 
@@ -66,11 +78,31 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 			this.routerExceptionHandler = new DefaultRouterExceptionHandler(this);
 		}
 
-		if (this.configuration.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.CONCURRENT
+		if ((this.configuration.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.CONCURRENT
+				|| this.configuration.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.ADAPTIVE)
+				&& this.configuration.getBatchedMethodsExecutorService() == null) {
+			this.configuration.setBatchedMethodsExecutorService(Executors.newFixedThreadPool(5));
+		}
+		else if (this.configuration.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.VIRTUAL_THREADS
+				&& this.configuration.getBatchedMethodsExecutorService() == null) {
+			this.configuration.setBatchedMethodsExecutorService(createVirtualThreadExecutor());
+		}
+
+		if (StringUtils.hasText(this.configuration.getMultiPollUrlVar())
 				&& this.configuration.getBatchedMethodsExecutorService() == null) {
 			this.configuration.setBatchedMethodsExecutorService(Executors.newFixedThreadPool(5));
 		}
 
+		if (StringUtils.hasText(this.configuration.getPushUrlVar())
+				&& this.configuration.getPushExecutorService() == null) {
+			this.configuration.setPushExecutorService(createVirtualThreadExecutor());
+		}
+
+		if (this.configuration.getCacheRefreshExecutorService() == null) {
+			this.configuration.setCacheRefreshExecutorService(
+					Executors.newFixedThreadPool(this.configuration.getMaxConcurrentCacheRefreshes()));
+		}
+
 		if (this.configuration.getConversionService() == null) {
 			Map<String, ConversionService> conversionServices = this.context.getBeansOfType(ConversionService.class);
 			if (conversionServices.isEmpty()) {
@@ -96,6 +128,23 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 		}
 
 		this.parametersResolver = new ParametersResolver(this.configuration.getConversionService(), this.jsonHandler);
+		this.sessionLockManager = new SessionLockManager();
+		this.cacheRefreshPermits = new Semaphore(this.configuration.getMaxConcurrentCacheRefreshes());
+	}
+
+	/**
+	 * Creates an executor that starts a new virtual thread for each task. The library is
+	 * compiled for Java 17, therefore the factory method is looked up by reflection.
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		}
+		catch (ReflectiveOperationException e) {
+			log.warn("Virtual threads are not supported by this JVM. Using a cached thread pool instead");
+			return Executors.newCachedThreadPool();
+		}
 	}
 
 	@Override
@@ -103,6 +152,20 @@ public class ConfigurationService implements InitializingBean, DisposableBean {
 		if (this.configuration.getBatchedMethodsExecutorService() != null) {
 			this.configuration.getBatchedMethodsExecutorService().shutdown();
 		}
+		if (this.configuration.getCacheRefreshExecutorService() != null) {
+			this.configuration.getCacheRefreshExecutorService().shutdown();
+		}
+		if (this.configuration.getPushExecutorService() != null) {
+			this.configuration.getPushExecutorService().shutdown();
+		}
+	}
+
+	SessionLockManager getSessionLockManager() {
+		return this.sessionLockManager;
+	}
+
+	Semaphore getCacheRefreshPermits() {
+		return this.cacheRefreshPermits;
 	}
 
 	public Configuration getConfiguration() {
@@ -0,0 +1,130 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.util.MethodInfo;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+/**
+ * Detects calls within one batched request that have the same action, method, data and
+ * metadata. Only methods with {@link ExtDirectMethod#deduplicateCalls()} are considered.
+ * The first call is executed, every identical call that follows receives a copy of its
+ * response with its own tid.
+ */
+final class DuplicateCallDetector {
+
+	private final MethodInfoCache methodInfoCache;
+
+	private final Map<CallKey, Future<ExtDirectResponse>> calls = new HashMap<>();
+
+	DuplicateCallDetector(MethodInfoCache methodInfoCache) {
+		this.methodInfoCache = methodInfoCache;
+	}
+
+	/**
+	 * Returns the response of an identical earlier call or executes the call.
+	 * @param directRequest the call
+	 * @param call starts the execution of the call
+	 * @return the future of the executed call or a future that copies the response of the
+	 * identical earlier call
+	 */
+	Future<ExtDirectResponse> submit(ExtDirectRequest directRequest, Supplier<Future<ExtDirectResponse>> call) {
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo == null || !methodInfo.isDeduplicateCalls()) {
+			return call.get();
+		}
+
+		CallKey key = new CallKey(directRequest.getAction(), directRequest.getMethod(), directRequest.getData(),
+				directRequest.getMetadata());
+		Future<ExtDirectResponse> original = this.calls.get(key);
+		if (original == null) {
+			Future<ExtDirectResponse> future = call.get();
+			this.calls.put(key, future);
+			return future;
+		}
+
+		if (original instanceof CompletableFuture<ExtDirectResponse> completableFuture) {
+			return completableFuture.thenApply(directResponse -> copy(directResponse, directRequest));
+		}
+		return new CopyingFuture(original, directRequest);
+	}
+
+	private static ExtDirectResponse copy(ExtDirectResponse directResponse, ExtDirectRequest directRequest) {
+		ExtDirectResponse copy = new ExtDirectResponse(directRequest);
+		copy.setType(directResponse.getType());
+		copy.setMessage(directResponse.getMessage());
+		copy.setWhere(directResponse.getWhere());
+		copy.setResult(directResponse.getResult());
+		copy.setJsonView(directResponse.getJsonView());
+		copy.setStreamResponse(directResponse.isStreamResponse());
+		return copy;
+	}
+
+	private record CallKey(String action, String method, Object data, Map<String, Object> metadata) {
+	}
+
+	private static final class CopyingFuture implements Future<ExtDirectResponse> {
+
+		private final Future<ExtDirectResponse> original;
+
+		private final ExtDirectRequest directRequest;
+
+		CopyingFuture(Future<ExtDirectResponse> original, ExtDirectRequest directRequest) {
+			this.original = original;
+			this.directRequest = directRequest;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return this.original.cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.original.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.original.isDone();
+		}
+
+		@Override
+		public ExtDirectResponse get() throws InterruptedException, ExecutionException {
+			return copy(this.original.get(), this.directRequest);
+		}
+
+		@Override
+		public ExtDirectResponse get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return copy(this.original.get(timeout, unit), this.directRequest);
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+
+/**
+ * {@link PollEventBus} for a single node. Events are delivered to the listeners on the
+ * thread that publishes them.
+ */
+public class InMemoryPollEventBus implements PollEventBus {
+
+	private static final Log log = LogFactory.getLog(InMemoryPollEventBus.class);
+
+	private final List<Consumer<ExtDirectPollResponse>> listeners = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void publish(ExtDirectPollResponse pollResponse) {
+		for (Consumer<ExtDirectPollResponse> listener : this.listeners) {
+			try {
+				listener.accept(pollResponse);
+			}
+			catch (RuntimeException e) {
+				log.error("Error delivering poll event: " + pollResponse.getName(), e);
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<ExtDirectPollResponse> listener) {
+		this.listeners.add(listener);
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.function.Consumer;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+
+/**
+ * Distributes poll events to all nodes of a cluster. If the application context contains
+ * a bean of this type the {@link PollEventPublisher} sends every event through the bus
+ * and pushes the events it receives from the bus to its clients, so an event published on
+ * one node reaches the clients connected to every node.
+ * <p>
+ * The bus only carries the events of the {@link PollEventPublisher}.
+ * {@link PollEventNotifier#notifyChanged(String)} stays local to the node it is called
+ * on.
+ *
+ * @see InMemoryPollEventBus
+ * @see TcpPollEventBus
+ */
+public interface PollEventBus {
+
+	/**
+	 * Sends an event to the subscribers on all nodes, including this node.
+	 * @param pollResponse the event
+	 */
+	void publish(ExtDirectPollResponse pollResponse);
+
+	/**
+	 * Registers a listener for the events of all nodes.
+	 * @param listener called for every event
+	 */
+	void subscribe(Consumer<ExtDirectPollResponse> listener);
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import ch.ralscha.extdirectspring.util.BroadcastCache;
+import ch.ralscha.extdirectspring.util.MethodInfo;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+/**
+ * Wakes up long polling requests. A poll request for an event is parked until
+ * {@link #notifyChanged(String)} is called for the event or the long polling timeout
+ * passes. Parked requests do not hold a thread, the notifier only keeps a callback per
+ * request.
+ * <p>
+ * A notification also discards the cached response of the event of broadcast POLL
+ * methods, so the next poll request receives fresh data.
+ * <p>
+ * Notifications are not sent through a {@link PollEventBus}, they only affect the node
+ * they are called on. In a cluster the application has to call
+ * {@link #notifyChanged(String)} on every node, for example from a listener it subscribes
+ * to the bus.
+ *
+ * @see ch.ralscha.extdirectspring.annotation.ExtDirectMethod#broadcastInterval()
+ * @see ch.ralscha.extdirectspring.annotation.ExtDirectMethod#longPollingTimeout()
+ */
+@Service
+public class PollEventNotifier {
+
+	private static final Log log = LogFactory.getLog(PollEventNotifier.class);
+
+	private final ConcurrentHashMap<String, Queue<Runnable>> waiters = new ConcurrentHashMap<>();
+
+	private final MethodInfoCache methodInfoCache;
+
+	@Autowired
+	public PollEventNotifier(MethodInfoCache methodInfoCache) {
+		this.methodInfoCache = methodInfoCache;
+	}
+
+	/**
+	 * Signals that new data for an event exists. The cached broadcast responses of the
+	 * event are discarded, then all parked poll requests for this event are resumed and
+	 * call the poll method.
+	 * @param event the name of the poll event
+	 */
+	public void notifyChanged(String event) {
+		for (Map.Entry<MethodInfoCache.Key, MethodInfo> entry : this.methodInfoCache) {
+			BroadcastCache broadcastCache = entry.getValue().getBroadcastCache();
+			if (broadcastCache != null) {
+				broadcastCache.clear(event);
+			}
+		}
+
+		Queue<Runnable> eventWaiters = this.waiters.get(event);
+		if (eventWaiters == null) {
+			return;
+		}
+
+		Runnable waiter;
+		while ((waiter = eventWaiters.poll()) != null) {
+			try {
+				waiter.run();
+			}
+			catch (RuntimeException e) {
+				log.error("Error resuming a long polling request for event: " + event, e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of parked poll requests.
+	 * @param event the name of the poll event
+	 * @return number of requests waiting for the event
+	 */
+	public int getWaitingCount(String event) {
+		Queue<Runnable> eventWaiters = this.waiters.get(event);
+		return eventWaiters != null ? eventWaiters.size() : 0;
+	}
+
+	void await(String event, Runnable waiter) {
+		this.waiters.computeIfAbsent(event, k -> new ConcurrentLinkedQueue<>()).add(waiter);
+	}
+
+	void cancel(String event, Runnable waiter) {
+		Queue<Runnable> eventWaiters = this.waiters.get(event);
+		if (eventWaiters != null) {
+			eventWaiters.remove(waiter);
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+
+/**
+ * Pushes poll events to all clients connected to the Server-Sent Events endpoint /push.
+ * Every event is serialized once and the same JSON is sent to every client. The SSE event
+ * name is the name of the poll event, the data is the {@link ExtDirectPollResponse} as
+ * JSON.
+ * <p>
+ * Every client has a bounded queue that is sent on the
+ * {@link Configuration#setPushExecutorService(java.util.concurrent.ExecutorService) push
+ * executor}, so a slow client does not delay the publisher or the other clients. Events
+ * that do not fit into the queue of a client are dropped for this client.
+ * <p>
+ * If the application context contains a {@link PollEventBus} the events are published on
+ * the bus and every node sends the events it receives from the bus to its clients.
+ *
+ * @see Configuration#setPushUrlVar(String)
+ */
+@Service
+public class PollEventPublisher {
+
+	private static final Log log = LogFactory.getLog(PollEventPublisher.class);
+
+	private final ConfigurationService configurationService;
+
+	private final Set<PushClient> clients = ConcurrentHashMap.newKeySet();
+
+	private final Set<Consumer<String>> listeners = ConcurrentHashMap.newKeySet();
+
+	private PollEventBus pollEventBus;
+
+	@Autowired
+	public PollEventPublisher(ConfigurationService configurationService) {
+		this.configurationService = configurationService;
+	}
+
+	@Autowired(required = false)
+	public void setPollEventBus(PollEventBus pollEventBus) {
+		this.pollEventBus = pollEventBus;
+		pollEventBus.subscribe(this::send);
+	}
+
+	/**
+	 * Registers a new client.
+	 * @return the emitter of the SSE connection
+	 */
+	public SseEmitter subscribe() {
+		Configuration configuration = this.configurationService.getConfiguration();
+		SseEmitter emitter = new SseEmitter(configuration.getPushTimeout());
+		PushClient client = new PushClient(emitter, configuration.getPushExecutorService(),
+				configuration.getPushQueueCapacity());
+		this.clients.add(client);
+		emitter.onCompletion(() -> this.clients.remove(client));
+		emitter.onTimeout(emitter::complete);
+		emitter.onError(e -> this.clients.remove(client));
+		return emitter;
+	}
+
+	/**
+	 * Sends a poll event to all connected clients.
+	 * @param event the name of the event
+	 * @param data the data of the event
+	 */
+	public void publish(String event, Object data) {
+		ExtDirectPollResponse pollResponse = new ExtDirectPollResponse();
+		pollResponse.setName(event);
+		pollResponse.setData(data);
+		publish(pollResponse);
+	}
+
+	/**
+	 * Sends a poll response to all connected clients, on all nodes if a
+	 * {@link PollEventBus} is configured.
+	 * @param pollResponse the poll response
+	 */
+	public void publish(ExtDirectPollResponse pollResponse) {
+		if (this.pollEventBus != null) {
+			this.pollEventBus.publish(pollResponse);
+		}
+		else {
+			send(pollResponse);
+		}
+	}
+
+	private void send(ExtDirectPollResponse pollResponse) {
+		if (this.clients.isEmpty() && this.listeners.isEmpty()) {
+			return;
+		}
+
+		String json = this.configurationService.getJsonHandler().getMapper().writeValueAsString(pollResponse);
+		for (PushClient client : this.clients) {
+			client.enqueue(pollResponse.getName(), json);
+		}
+		for (Consumer<String> listener : this.listeners) {
+			try {
+				listener.accept(json);
+			}
+			catch (RuntimeException e) {
+				log.error("Error pushing poll event: " + pollResponse.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener that receives every event as serialized
+	 * {@link ExtDirectPollResponse}.
+	 */
+	void addListener(Consumer<String> listener) {
+		this.listeners.add(listener);
+	}
+
+	void removeListener(Consumer<String> listener) {
+		this.listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the number of connected clients.
+	 * @return number of open SSE connections
+	 */
+	public int getSubscriberCount() {
+		return this.clients.size();
+	}
+
+	/**
+	 * A connected client with the events that still have to be sent to it. At most one
+	 * task per client runs on the executor, so the events are sent in order.
+	 */
+	private final class PushClient {
+
+		private final SseEmitter emitter;
+
+		private final ExecutorService executorService;
+
+		private final BlockingQueue<SseEventBuilder> queue;
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		PushClient(SseEmitter emitter, ExecutorService executorService, int capacity) {
+			this.emitter = emitter;
+			this.executorService = executorService;
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		void enqueue(String name, String json) {
+			if (!this.queue.offer(SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON))) {
+				log.warn("Dropping poll event " + name + ", the queue of a push client is full");
+				return;
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (!this.scheduled.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				this.executorService.execute(this::drain);
+			}
+			catch (RejectedExecutionException e) {
+				log.debug("Removing push client, the push executor is shut down", e);
+				remove();
+			}
+		}
+
+		private void drain() {
+			try {
+				SseEventBuilder event;
+				while ((event = this.queue.poll()) != null) {
+					this.emitter.send(event);
+				}
+			}
+			catch (IOException | IllegalStateException e) {
+				log.debug("Removing disconnected push client", e);
+				remove();
+				return;
+			}
+			this.scheduled.set(false);
+			// an event enqueued after the last poll must not wait for the next one
+			if (!this.queue.isEmpty()) {
+				schedule();
+			}
+		}
+
+		private void remove() {
+			PollEventPublisher.this.clients.remove(this);
+			this.queue.clear();
+		}
+
+	}
+
+}
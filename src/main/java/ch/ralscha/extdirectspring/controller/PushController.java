@@ -0,0 +1,56 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Server-Sent Events endpoint for poll events pushed with the {@link PollEventPublisher}.
+ * The endpoint only answers if {@link Configuration#setPushUrlVar(String)} is set.
+ */
+@Controller
+public class PushController {
+
+	private final ConfigurationService configurationService;
+
+	private final PollEventPublisher pollEventPublisher;
+
+	@Autowired
+	public PushController(ConfigurationService configurationService, PollEventPublisher pollEventPublisher) {
+		this.configurationService = configurationService;
+		this.pollEventPublisher = pollEventPublisher;
+	}
+
+	@RequestMapping(value = "/push", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter push(HttpServletResponse response) throws IOException {
+		if (!StringUtils.hasText(this.configurationService.getConfiguration().getPushUrlVar())) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return null;
+		}
+		return this.pollEventPublisher.subscribe();
+	}
+
+}
@@ -15,25 +15,52 @@
  */
 package ch.ralscha.extdirectspring.controller;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -41,7 +68,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
-import org.springframework.web.util.WebUtils;
 
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
@@ -58,14 +84,27 @@ import ch.ralscha.extdirectspring.bean.ExtDirectResponseRaw;
 import ch.ralscha.extdirectspring.bean.ExtDirectStoreResult;
 import ch.ralscha.extdirectspring.bean.JsonViewHint;
 import ch.ralscha.extdirectspring.bean.ModelAndJsonView;
+import ch.ralscha.extdirectspring.bean.StreamingStoreResult;
+import ch.ralscha.extdirectspring.bean.api.PollingProvider;
+import ch.ralscha.extdirectspring.util.BroadcastCache;
+import ch.ralscha.extdirectspring.util.Bulkhead;
 import ch.ralscha.extdirectspring.util.ExtDirectSpringUtil;
 import ch.ralscha.extdirectspring.util.MethodInfo;
 import ch.ralscha.extdirectspring.util.MethodInfoCache;
+import ch.ralscha.extdirectspring.util.ResultCache;
+import ch.ralscha.extdirectspring.util.ResultCache.CachedResult;
+import ch.ralscha.extdirectspring.util.SingleFlight;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.util.RawValue;
 
 /**
  * Main router controller that handles polling, form handler and normal Ext Direct calls.
@@ -76,10 +115,17 @@ public class RouterController {
 	public static final MediaType APPLICATION_JSON = new MediaType("application", "json",
 			ExtDirectSpringUtil.UTF8_CHARSET);
 
+	public static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson",
+			ExtDirectSpringUtil.UTF8_CHARSET);
+
 	public static final MediaType TEXT_HTML = new MediaType("text", "html", ExtDirectSpringUtil.UTF8_CHARSET);
 
 	private static final Log log = LogFactory.getLog(RouterController.class);
 
+	private static final long DEFAULT_ASYNC_TIMEOUT = 30_000;
+
+	private static final long ASYNC_TIMEOUT_MARGIN = 5_000;
+
 	private final RequestMappingHandlerAdapter handlerAdapter;
 
 	private final ConfigurationService configurationService;
@@ -89,6 +135,9 @@ public class RouterController {
 	@Autowired(required = false)
 	private Set<ExtRequestListener> extRequestListeners;
 
+	@Autowired(required = false)
+	private PollEventNotifier pollEventNotifier;
+
 	@Autowired
 	public RouterController(RequestMappingHandlerAdapter handlerAdapter, ConfigurationService configurationService,
 			MethodInfoCache methodInfoCache) {
@@ -102,6 +151,80 @@ public class RouterController {
 			@PathVariable("event") String event, HttpServletRequest request, HttpServletResponse response,
 			Locale locale) throws Exception {
 
+		MethodInfo methodInfo = this.methodInfoCache.get(beanName, method);
+		if (methodInfo != null && methodInfo.getLongPollingTimeout() > 0 && this.pollEventNotifier != null
+				&& request.isAsyncSupported()) {
+			parkPoll(beanName, method, event, methodInfo.getLongPollingTimeout(), request, response, locale);
+			return;
+		}
+
+		handlePoll(beanName, method, event, request, response, locale, true);
+	}
+
+	/**
+	 * Holds a long polling request until the {@link PollEventNotifier} signals a change
+	 * of the event or the timeout passes. Then the poll method is called on a container
+	 * thread, the timeout is handled by the container.
+	 */
+	private void parkPoll(String beanName, String method, String event, long timeout, HttpServletRequest request,
+			HttpServletResponse response, Locale locale) {
+
+		AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(timeout);
+		AtomicBoolean resumed = new AtomicBoolean();
+
+		Runnable resume = () -> {
+			try {
+				handlePoll(beanName, method, event, request, response, locale, false);
+			}
+			catch (Exception e) {
+				log.error("Error polling method '" + beanName + "." + method + "'", e);
+			}
+			finally {
+				asyncContext.complete();
+			}
+		};
+		Runnable waiter = () -> {
+			if (resumed.compareAndSet(false, true)) {
+				asyncContext.start(resume);
+			}
+		};
+
+		asyncContext.addListener(new AsyncListener() {
+			@Override
+			public void onTimeout(AsyncEvent asyncEvent) {
+				RouterController.this.pollEventNotifier.cancel(event, waiter);
+				if (resumed.compareAndSet(false, true)) {
+					// the response must be written before this listener returns
+					resume.run();
+				}
+			}
+
+			@Override
+			public void onError(AsyncEvent asyncEvent) {
+				RouterController.this.pollEventNotifier.cancel(event, waiter);
+				if (resumed.compareAndSet(false, true)) {
+					asyncContext.complete();
+				}
+			}
+
+			@Override
+			public void onComplete(AsyncEvent asyncEvent) {
+				// nothing here
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent asyncEvent) {
+				// nothing here
+			}
+		});
+
+		this.pollEventNotifier.await(event, waiter);
+	}
+
+	private void handlePoll(String beanName, String method, String event, HttpServletRequest request,
+			HttpServletResponse response, Locale locale, boolean allowAsync) throws Exception {
+
 		ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
 		directPollResponse.setName(event);
 
@@ -115,56 +238,27 @@ public class RouterController {
 					|| methodInfo.isStreamResponse();
 
 			try {
+				BroadcastCache broadcastCache = methodInfo.getBroadcastCache();
+				if (broadcastCache != null) {
+					writePollBytes(request, response,
+							broadcastCache.get(event,
+									() -> serializePollResponse(beanName, methodInfo, event, request, response, locale),
+									getAsyncTimeout()));
+					return;
+				}
 
-				Object[] parameters = this.configurationService.getParametersResolver()
-					.prepareParameters(request, response, locale, methodInfo);
+				Object result = invokePoll(beanName, methodInfo, request, response, locale);
 
-				if (this.configurationService.getConfiguration().isSynchronizeOnSession()
-						|| methodInfo.isSynchronizeOnSession()) {
-					HttpSession session = request.getSession(false);
-					if (session != null) {
-						Object mutex = WebUtils.getSessionMutex(session);
-						synchronized (mutex) {
-							Object result = ExtDirectSpringUtil.invoke(
-									this.configurationService.getApplicationContext(), beanName, methodInfo,
-									parameters);
-
-							if (result instanceof ModelAndJsonView modelAndJsonView) {
-								directPollResponse.setData(modelAndJsonView.getModel());
-								jsonView = getJsonView(modelAndJsonView, methodInfo.getJsonView());
-							}
-							else {
-								directPollResponse.setData(result);
-								jsonView = getJsonView(result, methodInfo.getJsonView());
-							}
-						}
-					}
-					else {
-						Object result = ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
-								beanName, methodInfo, parameters);
-						if (result instanceof ModelAndJsonView modelAndJsonView) {
-							directPollResponse.setData(modelAndJsonView.getModel());
-							jsonView = getJsonView(modelAndJsonView, methodInfo.getJsonView());
-						}
-						else {
-							directPollResponse.setData(result);
-							jsonView = getJsonView(result, methodInfo.getJsonView());
-						}
-					}
-				}
-				else {
-					Object result = ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
-							beanName, methodInfo, parameters);
-					if (result instanceof ModelAndJsonView modelAndJsonView) {
-						directPollResponse.setData(modelAndJsonView.getModel());
-						jsonView = getJsonView(modelAndJsonView, methodInfo.getJsonView());
-					}
-					else {
-						directPollResponse.setData(result);
-						jsonView = getJsonView(result, methodInfo.getJsonView());
+				if (result instanceof CompletionStage<?> completionStage) {
+					if (allowAsync && request.isAsyncSupported()) {
+						writePollResponseAsync(completionStage, directPollResponse, methodInfo, streamResponse, request,
+								response);
+						return;
 					}
+					result = completionStage.toCompletableFuture().get(getAsyncTimeout(), TimeUnit.MILLISECONDS);
 				}
 
+				jsonView = setPollResult(directPollResponse, methodInfo, result);
 			}
 			catch (Exception e) {
 				log.error("Error polling method '" + beanName + "." + method + "'", rootCause(e));
@@ -177,7 +271,242 @@ public class RouterController {
 			streamResponse = this.configurationService.getConfiguration().isStreamResponse();
 		}
 
-		writeJsonResponse(response, directPollResponse, jsonView, streamResponse);
+		writePollResponse(request, response, directPollResponse, jsonView, streamResponse);
+	}
+
+	private Object invokePoll(String beanName, MethodInfo methodInfo, HttpServletRequest request,
+			HttpServletResponse response, Locale locale) throws Exception {
+		return invokeWithBulkhead(methodInfo, () -> {
+			Object[] parameters = this.configurationService.getParametersResolver()
+				.prepareParameters(request, response, locale, methodInfo);
+			return invokeSynchronized(request, methodInfo, () -> ExtDirectSpringUtil
+				.invoke(this.configurationService.getApplicationContext(), beanName, methodInfo, parameters));
+		});
+	}
+
+	/**
+	 * Calls the POLL method, waits for an asynchronous result and serializes the
+	 * {@link ExtDirectPollResponse}.
+	 */
+	private byte[] serializePollResponse(String beanName, MethodInfo methodInfo, String event,
+			HttpServletRequest request, HttpServletResponse response, Locale locale) throws Exception {
+		Object result = invokePoll(beanName, methodInfo, request, response, locale);
+		if (result instanceof CompletionStage<?> completionStage) {
+			result = completionStage.toCompletableFuture().get(getAsyncTimeout(), TimeUnit.MILLISECONDS);
+		}
+		ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+		directPollResponse.setName(event);
+		Class<?> jsonView = setPollResult(directPollResponse, methodInfo, result);
+		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
+		return jsonView != null ? objectMapper.writerWithView(jsonView).writeValueAsBytes(directPollResponse)
+				: objectMapper.writeValueAsBytes(directPollResponse);
+	}
+
+	private void writePollResponse(HttpServletRequest request, HttpServletResponse response,
+			ExtDirectPollResponse directPollResponse, Class<?> jsonView, boolean streamResponse) throws IOException {
+		if (!this.configurationService.getConfiguration().isConditionalPolling()
+				|| !"event".equals(directPollResponse.getType())) {
+			writeJsonResponse(response, directPollResponse, jsonView, streamResponse);
+			return;
+		}
+
+		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
+		writePollBytes(request, response,
+				jsonView != null ? objectMapper.writerWithView(jsonView).writeValueAsBytes(directPollResponse)
+						: objectMapper.writeValueAsBytes(directPollResponse));
+	}
+
+	/**
+	 * Writes a serialized poll response. With conditional polling the response gets an
+	 * ETag computed from the JSON and is answered with 304 Not Modified if the client
+	 * sends the same tag in the If-None-Match header.
+	 */
+	private void writePollBytes(HttpServletRequest request, HttpServletResponse response, byte[] json)
+			throws IOException {
+		if (this.configurationService.getConfiguration().isConditionalPolling()) {
+			String etag = "\"0" + DigestUtils.md5DigestAsHex(json) + "\"";
+			response.setHeader(HttpHeaders.ETAG, etag);
+			if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+		}
+		writeBytesResponse(response, json);
+	}
+
+	private static boolean etagMatches(String ifNoneMatch, String etag) {
+		if (!StringUtils.hasText(ifNoneMatch)) {
+			return false;
+		}
+		for (String tag : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+			tag = tag.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals(etag) || tag.equals("*")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void writeBytesResponse(HttpServletResponse response, byte[] json) throws IOException {
+		response.setContentType(APPLICATION_JSON.toString());
+		response.setCharacterEncoding(APPLICATION_JSON.getCharset().name());
+		response.setContentLength(json.length);
+		FileCopyUtils.copy(json, response.getOutputStream());
+	}
+
+	private static Class<?> setPollResult(ExtDirectPollResponse directPollResponse, MethodInfo methodInfo,
+			Object result) {
+		Object data = result instanceof Optional<?> optional ? optional.orElse(null) : result;
+		if (data instanceof ModelAndJsonView modelAndJsonView) {
+			directPollResponse.setData(modelAndJsonView.getModel());
+			return getJsonView(modelAndJsonView, methodInfo.getJsonView());
+		}
+		directPollResponse.setData(data);
+		return getJsonView(data, methodInfo.getJsonView());
+	}
+
+	/**
+	 * Releases the request thread and writes the poll response when the
+	 * {@link CompletionStage} returned by a POLL method completes.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	private void writePollResponseAsync(CompletionStage<?> completionStage, ExtDirectPollResponse directPollResponse,
+			MethodInfo methodInfo, boolean streamResponse, HttpServletRequest request, HttpServletResponse response) {
+
+		long timeout = getAsyncTimeout();
+		AsyncContext asyncContext = request.startAsync(request, response);
+		// only a safety net, the poll is answered when the copy of the stage times out
+		asyncContext.setTimeout(timeout + ASYNC_TIMEOUT_MARGIN);
+		completionStage.toCompletableFuture()
+			.thenApply(Function.identity())
+			.orTimeout(timeout, TimeUnit.MILLISECONDS)
+			.whenComplete((result, throwable) -> {
+				try {
+					Class<?> jsonView = null;
+					if (throwable != null) {
+						Exception e = new ExecutionException(
+								throwable instanceof CompletionException && throwable.getCause() != null
+										? throwable.getCause() : throwable);
+						log.error("Error polling method '" + directPollResponse.getName() + "'", e.getCause());
+						directPollResponse.setData(handleException(methodInfo, directPollResponse, e, request));
+					}
+					else {
+						jsonView = setPollResult(directPollResponse, methodInfo, result);
+					}
+					writePollResponse(request, response, directPollResponse, jsonView, streamResponse);
+				}
+				catch (IOException | RuntimeException e) {
+					log.error("Error writing the response of an asynchronous poll method", e);
+				}
+				finally {
+					asyncContext.complete();
+				}
+			});
+	}
+
+	/**
+	 * Calls the POLL methods of several events with one request. The events are listed in
+	 * the comma separated parameter events, the methods are called concurrently. The
+	 * response is an array with one {@link ExtDirectPollResponse} per event, in the order
+	 * of the parameter. Only available if
+	 * {@link Configuration#setMultiPollUrlVar(String)} is set.
+	 */
+	@RequestMapping(value = "/poll", params = "events")
+	public void poll(@RequestParam("events") String events, HttpServletRequest request, HttpServletResponse response,
+			Locale locale) throws Exception {
+
+		if (!StringUtils.hasText(this.configurationService.getConfiguration().getMultiPollUrlVar())) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		Set<String> eventNames = StringUtils.commaDelimitedListToSet(events.replace(" ", ""));
+		eventNames.remove("");
+		Map<String, MethodInfo> pollMethods = new HashMap<>();
+		for (Map.Entry<MethodInfoCache.Key, MethodInfo> entry : this.methodInfoCache) {
+			PollingProvider pollingProvider = entry.getValue().getPollingProvider();
+			if (pollingProvider != null && eventNames.contains(pollingProvider.getEvent())) {
+				pollMethods.putIfAbsent(pollingProvider.getEvent(), entry.getValue());
+			}
+		}
+
+		ExecutorService executorService = eventNames.size() > 1
+				? this.configurationService.getConfiguration().getBatchedMethodsExecutorService() : null;
+		List<String> eventList = new ArrayList<>(eventNames);
+		List<Future<byte[]>> futures = new ArrayList<>(eventList.size());
+		for (String event : eventList) {
+			Callable<byte[]> callable = () -> pollEvent(event, pollMethods.get(event), request, response, locale);
+			futures.add(executorService != null ? executorService.submit(callable)
+					: CompletableFuture.completedFuture(callable.call()));
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getAsyncTimeout());
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+		bos.write('[');
+		for (int i = 0; i < futures.size(); i++) {
+			if (i > 0) {
+				bos.write(',');
+			}
+			Future<byte[]> future = futures.get(i);
+			try {
+				bos.write(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+			}
+			catch (TimeoutException e) {
+				future.cancel(true);
+				String event = eventList.get(i);
+				MethodInfo methodInfo = pollMethods.get(event);
+				log.error("Poll method of event '" + event + "' did not finish within " + getAsyncTimeout() + " ms");
+				bos.write(serializePollException(event, methodInfo, e, request));
+			}
+		}
+		bos.write(']');
+		writeBytesResponse(response, bos.toByteArray());
+	}
+
+	private byte[] pollEvent(String event, MethodInfo methodInfo, HttpServletRequest request,
+			HttpServletResponse response, Locale locale) {
+
+		ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+		directPollResponse.setName(event);
+
+		if (methodInfo != null) {
+			PollingProvider pollingProvider = methodInfo.getPollingProvider();
+			String beanName = pollingProvider.getBeanName();
+			try {
+				BroadcastCache broadcastCache = methodInfo.getBroadcastCache();
+				if (broadcastCache != null) {
+					return broadcastCache.get(event,
+							() -> serializePollResponse(beanName, methodInfo, event, request, response, locale),
+							getAsyncTimeout());
+				}
+				return serializePollResponse(beanName, methodInfo, event, request, response, locale);
+			}
+			catch (Exception e) {
+				log.error("Error polling method '" + beanName + "." + pollingProvider.getMethod() + "'", rootCause(e));
+				return serializePollException(event, methodInfo, e, request);
+			}
+		}
+		else {
+			log.error("Error polling event '" + event + "'. No POLL method found");
+			directPollResponse.setType("exception");
+			directPollResponse.setMessage(this.configurationService.getConfiguration().getDefaultExceptionMessage());
+			if (this.configurationService.getConfiguration().isSendStacktrace()) {
+				directPollResponse.setWhere("Poll event '" + event + "' not found");
+			}
+		}
+
+		return this.configurationService.getJsonHandler().getMapper().writeValueAsBytes(directPollResponse);
+	}
+
+	private byte[] serializePollException(String event, MethodInfo methodInfo, Exception e,
+			HttpServletRequest request) {
+		ExtDirectPollResponse directPollResponse = new ExtDirectPollResponse();
+		directPollResponse.setName(event);
+		directPollResponse.setData(handleException(methodInfo, directPollResponse, e, request));
+		return this.configurationService.getJsonHandler().getMapper().writeValueAsBytes(directPollResponse);
 	}
 
 	@RequestMapping(value = "/router", method = RequestMethod.POST, params = "extAction")
@@ -206,10 +535,15 @@ public class RouterController {
 						|| methodInfo.isSynchronizeOnSession()) {
 					HttpSession session = request.getSession(false);
 					if (session != null) {
-						Object mutex = WebUtils.getSessionMutex(session);
-						synchronized (mutex) {
+						Lock lock = this.configurationService.getSessionLockManager()
+							.getLock(session, methodInfo.isReadOnly());
+						lock.lock();
+						try {
 							modelAndView = this.handlerAdapter.handle(request, response, handlerMethod);
 						}
+						finally {
+							lock.unlock();
+						}
 					}
 					else {
 						modelAndView = this.handlerAdapter.handle(request, response, handlerMethod);
@@ -248,213 +582,806 @@ public class RouterController {
 		return null;
 	}
 
+	/**
+	 * Router for bulk clients. The request body contains one transaction, or an array of
+	 * transactions, per line (newline delimited JSON). Every response is written as one
+	 * line as soon as its call completes, the client matches it by its tid. At most
+	 * {@link Configuration#setMaxInFlightNdjsonCalls(int)} calls are executed at the same
+	 * time, the next line is read when a call finished. Calls that do not finish within
+	 * the batchedMethodsTimeout are answered with an exception line.
+	 */
 	@RequestMapping(value = "/router", method = RequestMethod.POST, params = "!extAction",
-			consumes = MediaType.APPLICATION_JSON_VALUE)
-	public void router(HttpServletRequest request, HttpServletResponse response, Locale locale) throws IOException {
+			consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public void routerNdjson(HttpServletRequest request, HttpServletResponse response, Locale locale)
+			throws IOException {
+
+		Configuration configuration = this.configurationService.getConfiguration();
+		ExecutorService executorService = configuration.getBatchedMethodsExecutorService();
+		int maxInFlight = executorService != null ? configuration.getMaxInFlightNdjsonCalls() : 1;
+		Semaphore inFlight = new Semaphore(maxInFlight);
+
+		response.setContentType(APPLICATION_NDJSON.toString());
+		response.setCharacterEncoding(APPLICATION_NDJSON.getCharset().name());
+		NdjsonWriter writer = new NdjsonWriter(response.getOutputStream());
+		long timeout = getAsyncTimeout();
+
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(request.getInputStream(), ExtDirectSpringUtil.UTF8_CHARSET))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!StringUtils.hasText(line)) {
+					continue;
+				}
 
-		Object requestData = this.configurationService.getJsonHandler()
-			.readValue(request.getInputStream(), Object.class);
+				List<ExtDirectRequest> directRequests = this.configurationService.getJsonHandler()
+					.readDirectRequests(new ByteArrayInputStream(line.getBytes(ExtDirectSpringUtil.UTF8_CHARSET)));
+				if (directRequests == null) {
+					ExtDirectResponse directResponse = new ExtDirectResponse();
+					directResponse.setType("exception");
+					directResponse.setMessage(configuration.getDefaultExceptionMessage());
+					writer.write(null, directResponse);
+					continue;
+				}
 
-		List<ExtDirectRequest> directRequests = null;
-		if (requestData instanceof Map) {
-			directRequests = Collections.singletonList(
-					this.configurationService.getJsonHandler().convertValue(requestData, ExtDirectRequest.class));
+				for (ExtDirectRequest directRequest : directRequests) {
+					if (!inFlight.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+						writer.write(null,
+								createExceptionResponse(directRequest,
+										new TimeoutException("No free slot for the method within " + timeout + " ms"),
+										request));
+						continue;
+					}
+					writer.register(directRequest);
+					Runnable call = () -> handleNdjsonCall(directRequest, request, response, locale, writer, inFlight);
+					if (executorService != null) {
+						try {
+							executorService.execute(call);
+						}
+						catch (RejectedExecutionException e) {
+							call.run();
+						}
+					}
+					else {
+						call.run();
+					}
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			log.error("Interrupted while reading newline delimited JSON calls", e);
+			Thread.currentThread().interrupt();
 		}
-		else if (requestData instanceof List) {
-			directRequests = new ArrayList<>();
-			for (Object oneRequest : (List<?>) requestData) {
-				directRequests
-					.add(this.configurationService.getJsonHandler().convertValue(oneRequest, ExtDirectRequest.class));
+		finally {
+			// wait for the calls that are still running
+			boolean finished = false;
+			try {
+				finished = inFlight.tryAcquire(maxInFlight, timeout, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (!finished) {
+				for (ExtDirectRequest directRequest : writer.close()) {
+					writer.writeUnchecked(createExceptionResponse(directRequest,
+							new TimeoutException("Method did not finish within " + timeout + " ms"), request));
+				}
 			}
 		}
+	}
 
-		if (directRequests != null) {
-			if (directRequests.size() == 1) {
-				handleMethodCallOne(directRequests.get(0), request, response, locale);
+	@SuppressWarnings("FutureReturnValueIgnored")
+	private void handleNdjsonCall(ExtDirectRequest directRequest, HttpServletRequest request,
+			HttpServletResponse response, Locale locale, NdjsonWriter writer, Semaphore inFlight) {
+		CompletableFuture<ExtDirectResponse> future;
+		try {
+			future = handleMethodCallAsync(directRequest, request, response, locale);
+		}
+		catch (RuntimeException e) {
+			log.error("Error invoking method: " + directRequest.getMethod(), e);
+			future = CompletableFuture.completedFuture(createExceptionResponse(directRequest, e, request));
+		}
+		future.whenComplete((directResponse, throwable) -> {
+			try {
+				if (throwable != null) {
+					log.error("Error invoking method: " + directRequest.getMethod(), throwable);
+					writer.write(directRequest, createExceptionResponse(directRequest,
+							throwable instanceof Exception ex ? ex : new CompletionException(throwable), request));
+				}
+				else {
+					writer.write(directRequest, directResponse);
+				}
 			}
-			else if (this.configurationService.getConfiguration()
+			finally {
+				inFlight.release();
+			}
+		});
+	}
+
+	@RequestMapping(value = "/router", method = RequestMethod.POST, params = "!extAction",
+			consumes = MediaType.APPLICATION_JSON_VALUE)
+	public void router(HttpServletRequest request, HttpServletResponse response, Locale locale) throws IOException {
+
+		if (this.configurationService.getConfiguration().isPipelineBatchedMethods()) {
+			handleMethodCallsPipelined(request, response, locale);
+			return;
+		}
+
+		List<ExtDirectRequest> directRequests = this.configurationService.getJsonHandler()
+			.readDirectRequests(request.getInputStream());
+
+		if (directRequests != null) {
+			if (directRequests.size() == 1 || this.configurationService.getConfiguration()
 				.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.SEQUENTIAL) {
 				handleMethodCallsSequential(directRequests, request, response, locale);
 			}
 			else if (this.configurationService.getConfiguration()
-				.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.CONCURRENT) {
+				.getBatchedMethodsExecutionPolicy() == BatchedMethodsExecutionPolicy.ADAPTIVE) {
+				handleMethodCallsAdaptive(directRequests, request, response, locale);
+			}
+			else {
 				handleMethodCallsConcurrent(directRequests, request, response, locale);
 			}
 		}
 
 	}
 
+	private void handleMethodCallsPipelined(HttpServletRequest request, HttpServletResponse response, Locale locale)
+			throws IOException {
+
+		BatchedMethodsExecutionPolicy policy = this.configurationService.getConfiguration()
+			.getBatchedMethodsExecutionPolicy();
+		ExecutorService executorService = policy != BatchedMethodsExecutionPolicy.SEQUENTIAL
+				? this.configurationService.getConfiguration().getBatchedMethodsExecutorService() : null;
+		boolean adaptive = policy == BatchedMethodsExecutionPolicy.ADAPTIVE;
+
+		long startTime = System.nanoTime();
+		List<ExtDirectRequest> directRequests = new ArrayList<>();
+		List<Future<ExtDirectResponse>> futures = new ArrayList<>();
+		DuplicateCallDetector duplicateCallDetector = new DuplicateCallDetector(this.methodInfoCache);
+		boolean valid = this.configurationService.getJsonHandler()
+			.readDirectRequests(request.getInputStream(), directRequest -> {
+				directRequests.add(directRequest);
+				if (executorService != null
+						&& (!adaptive || getExpectedExecutionTime(directRequest) >= getAdaptiveThreshold())) {
+					futures.add(duplicateCallDetector.submit(directRequest,
+							() -> submitMethodCall(executorService, directRequest, request, response, locale)));
+				}
+				else {
+					futures.add(duplicateCallDetector.submit(directRequest,
+							() -> handleMethodCallAsync(directRequest, request, response, locale)));
+				}
+			});
+
+		if (valid || !futures.isEmpty()) {
+			writeMethodCallResponsesWhenComplete(directRequests, futures, startTime, request, response);
+		}
+	}
+
 	private void handleMethodCallsConcurrent(List<ExtDirectRequest> directRequests, HttpServletRequest request,
 			HttpServletResponse response, Locale locale) throws IOException {
 
+		long startTime = System.nanoTime();
 		List<Future<ExtDirectResponse>> futures = new ArrayList<>(directRequests.size());
+		DuplicateCallDetector duplicateCallDetector = new DuplicateCallDetector(this.methodInfoCache);
+		ExecutorService executorService = this.configurationService.getConfiguration()
+			.getBatchedMethodsExecutorService();
 		for (ExtDirectRequest directRequest : directRequests) {
-			Callable<ExtDirectResponse> callable = createMethodCallCallable(directRequest, request, response, locale);
-			futures
-				.add(this.configurationService.getConfiguration().getBatchedMethodsExecutorService().submit(callable));
+			futures.add(duplicateCallDetector.submit(directRequest,
+					() -> submitMethodCall(executorService, directRequest, request, response, locale)));
 		}
 
-		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
-		List<Object> directResponses = new ArrayList<>(directRequests.size());
-		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse();
+		writeMethodCallResponses(directRequests, futures, startTime, request, response);
+	}
+
+	private void handleMethodCallsAdaptive(List<ExtDirectRequest> directRequests, HttpServletRequest request,
+			HttpServletResponse response, Locale locale) throws IOException {
+
+		long threshold = getAdaptiveThreshold();
+		long[] expectedExecutionTimes = new long[directRequests.size()];
+		long expectedTotal = 0;
+		for (int i = 0; i < expectedExecutionTimes.length; i++) {
+			expectedExecutionTimes[i] = getExpectedExecutionTime(directRequests.get(i));
+			expectedTotal = Math.min(expectedTotal, Long.MAX_VALUE - expectedExecutionTimes[i])
+					+ expectedExecutionTimes[i];
+		}
+
+		if (expectedTotal < threshold) {
+			handleMethodCallsSequential(directRequests, request, response, locale);
+			return;
+		}
+
+		long startTime = System.nanoTime();
+		List<Future<ExtDirectResponse>> futures = new ArrayList<>(directRequests.size());
+		DuplicateCallDetector duplicateCallDetector = new DuplicateCallDetector(this.methodInfoCache);
+		ExecutorService executorService = this.configurationService.getConfiguration()
+			.getBatchedMethodsExecutorService();
+		for (int i = 0; i < expectedExecutionTimes.length; i++) {
+			if (expectedExecutionTimes[i] >= threshold) {
+				ExtDirectRequest directRequest = directRequests.get(i);
+				futures.add(duplicateCallDetector.submit(directRequest,
+						() -> submitMethodCall(executorService, directRequest, request, response, locale)));
+			}
+			else {
+				futures.add(null);
+			}
+		}
+		for (int i = 0; i < expectedExecutionTimes.length; i++) {
+			if (futures.get(i) == null) {
+				ExtDirectRequest directRequest = directRequests.get(i);
+				futures.set(i, duplicateCallDetector.submit(directRequest,
+						() -> handleMethodCallAsync(directRequest, request, response, locale)));
+			}
+		}
+
+		writeMethodCallResponses(directRequests, futures, startTime, request, response);
+	}
+
+	/**
+	 * Returns how long in milliseconds an asynchronous response may take. This is the
+	 * batchedMethodsTimeout, or the timeout the client is configured with, or 30 seconds,
+	 * the default timeout of the Ext JS RemotingProvider.
+	 */
+	private long getAsyncTimeout() {
+		Configuration configuration = this.configurationService.getConfiguration();
+		if (configuration.getBatchedMethodsTimeout() != null) {
+			return configuration.getBatchedMethodsTimeout().longValue();
+		}
+		if (configuration.getTimeout() != null) {
+			return configuration.getTimeout().longValue();
+		}
+		return DEFAULT_ASYNC_TIMEOUT;
+	}
+
+	private long getAdaptiveThreshold() {
+		return TimeUnit.MICROSECONDS
+			.toNanos(this.configurationService.getConfiguration().getAdaptiveExecutionThreshold());
+	}
+
+	/**
+	 * Returns the average execution time of the method in nanoseconds. Methods that were
+	 * never called are expected to be expensive. Calls of non existing methods are
+	 * answered immediately and therefore cheap.
+	 */
+	private long getExpectedExecutionTime(ExtDirectRequest directRequest) {
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo == null) {
+			return 0;
+		}
+		long averageExecutionTime = methodInfo.getAverageExecutionTime();
+		return averageExecutionTime < 0 ? Long.MAX_VALUE : averageExecutionTime;
+	}
+
+	/**
+	 * Writes the responses of a batch. If some methods returned a {@link CompletionStage}
+	 * that is not yet complete and the request supports asynchronous processing, the
+	 * request thread is released and the responses are written as soon as all methods are
+	 * complete. Otherwise the calling thread waits for the results, for asynchronous
+	 * methods at most the async timeout.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	private void writeMethodCallResponsesWhenComplete(List<ExtDirectRequest> directRequests,
+			List<Future<ExtDirectResponse>> futures, long startTime, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+
+		List<CompletableFuture<ExtDirectResponse>> pending = new ArrayList<>();
 		for (Future<ExtDirectResponse> future : futures) {
+			if (!future.isDone()) {
+				if (future instanceof PooledMethodCall
+						|| !(future instanceof CompletableFuture<ExtDirectResponse> completableFuture)) {
+					// a method running in the executor, wait for it
+					pending.clear();
+					break;
+				}
+				pending.add(completableFuture);
+			}
+		}
+
+		if (pending.isEmpty()) {
+			writeMethodCallResponses(directRequests, futures, startTime, request, response);
+			return;
+		}
+
+		long timeout = getAsyncTimeout();
+		if (!request.isAsyncSupported()) {
+			writeMethodCallResponses(directRequests, futures, startTime, timeout, request, response);
+			return;
+		}
+
+		long remaining = Math.max(0, startTime + TimeUnit.MILLISECONDS.toNanos(timeout) - System.nanoTime());
+		CompletableFuture<Void> allComplete = CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+			.completeOnTimeout(null, remaining, TimeUnit.NANOSECONDS);
+
+		AsyncContext asyncContext = request.startAsync(request, response);
+		// only a safety net, the responses are written when allComplete times out
+		asyncContext.setTimeout(TimeUnit.NANOSECONDS.toMillis(remaining) + ASYNC_TIMEOUT_MARGIN);
+		allComplete.whenComplete((result, throwable) -> {
 			try {
-				ExtDirectResponse directResponse = future.get();
+				writeMethodCallResponses(directRequests, futures, startTime, timeout, request, response);
+			}
+			catch (IOException | RuntimeException e) {
+				log.error("Error writing the response of asynchronous methods", e);
+			}
+			finally {
+				asyncContext.complete();
+			}
+		});
+	}
+
+	private void writeMethodCallResponses(List<ExtDirectRequest> directRequests,
+			List<Future<ExtDirectResponse>> futures, long startTime, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		Integer batchedMethodsTimeout = this.configurationService.getConfiguration().getBatchedMethodsTimeout();
+		writeMethodCallResponses(directRequests, futures, startTime,
+				batchedMethodsTimeout != null ? batchedMethodsTimeout.longValue() : null, request, response);
+	}
+
+	/**
+	 * Waits for the methods of a batch and writes the responses. Methods that are not
+	 * complete when the timeout in milliseconds expires are cancelled and answered with
+	 * an exception response. A null timeout waits without limit.
+	 */
+	private void writeMethodCallResponses(List<ExtDirectRequest> directRequests,
+			List<Future<ExtDirectResponse>> futures, long startTime, Long batchedMethodsTimeout,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
+		boolean flushBatchedResponses = this.configurationService.getConfiguration().isFlushBatchedResponses();
+		List<Object> directResponses = new ArrayList<>(futures.size());
+		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse();
+		long deadline = batchedMethodsTimeout != null
+				? startTime + TimeUnit.MILLISECONDS.toNanos(batchedMethodsTimeout.longValue()) : 0;
+		boolean cancelled = false;
+		List<AutoCloseable> streamedResults = new ArrayList<>();
+		SequenceWriter sequenceWriter = null;
+
+		try {
+			if (flushBatchedResponses) {
+				response.setContentType(APPLICATION_JSON.toString());
+				response.setCharacterEncoding(APPLICATION_JSON.getCharset().name());
+				sequenceWriter = objectMapper.writer().writeValuesAsArray(response.getOutputStream());
+				sequenceWriter.flush();
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+				ExtDirectRequest directRequest = directRequests.get(i);
+				Future<ExtDirectResponse> future = futures.get(i);
+				ExtDirectResponse directResponse;
+				try {
+					if (cancelled && !future.isDone()) {
+						future.cancel(true);
+						directResponse = createExceptionResponse(directRequest,
+								new TimeoutException("Batch cancelled before the method finished"), request);
+					}
+					else if (batchedMethodsTimeout != null) {
+						directResponse = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					}
+					else {
+						directResponse = future.get();
+					}
+				}
+				catch (TimeoutException e) {
+					log.error("Batch timeout of " + batchedMethodsTimeout + " ms exceeded. Cancelling method: "
+							+ directRequest.getMethod());
+					cancelled = true;
+					future.cancel(true);
+					directResponse = createExceptionResponse(directRequest, e, request);
+				}
+				catch (InterruptedException e) {
+					log.error("Interrupted while waiting for method: " + directRequest.getMethod(), e);
+					Thread.currentThread().interrupt();
+					cancelled = true;
+					future.cancel(true);
+					directResponse = createExceptionResponse(directRequest, e, request);
+				}
+				catch (ExecutionException | CancellationException e) {
+					log.error("Error invoking method: " + directRequest.getMethod(), rootCause(e));
+					directResponse = createExceptionResponse(directRequest, e, request);
+				}
+
+				Object result = directResponse.getResult();
+				if (isStreamedResult(result)) {
+					streamedResults.add((AutoCloseable) result);
+				}
+
 				streamResponse = streamResponse || directResponse.isStreamResponse();
-				Class<?> jsonView = directResponse.getJsonView();
-				if (jsonView == null) {
-					directResponses.add(directResponse);
+				Object responseObject = createResponseObject(directResponse);
+
+				if (sequenceWriter != null) {
+					// all earlier responses are already written, send this one right away
+					sequenceWriter.write(responseObject);
+					sequenceWriter.flush();
 				}
 				else {
-					String jsonResult = objectMapper.writerWithView(jsonView)
-						.writeValueAsString(directResponse.getResult());
-					directResponses.add(new ExtDirectResponseRaw(directResponse, jsonResult));
+					directResponses.add(responseObject);
 				}
 			}
-			catch (InterruptedException e) {
-				log.error("Error invoking method", e);
-				Thread.currentThread().interrupt();
+
+			if (sequenceWriter != null) {
+				sequenceWriter.close();
 			}
-			catch (ExecutionException e) {
-				log.error("Error invoking method", e);
+			else {
+				writeJsonResponse(response, directResponses, null, streamResponse);
 			}
 		}
-		writeJsonResponse(response, directResponses, null, streamResponse);
+		finally {
+			closeStreamedResults(streamedResults);
+		}
 	}
 
-	private Callable<ExtDirectResponse> createMethodCallCallable(final ExtDirectRequest directRequest,
-			final HttpServletRequest request, final HttpServletResponse response, final Locale locale) {
-		return () -> handleMethodCall(directRequest, request, response, locale);
+	static boolean isStreamedResult(Object result) {
+		return result instanceof StreamingStoreResult || result instanceof BaseStream
+				|| (result instanceof Iterator && result instanceof AutoCloseable);
 	}
 
-	private void handleMethodCallOne(ExtDirectRequest directRequest, HttpServletRequest request,
-			HttpServletResponse response, Locale locale) throws IOException {
+	/**
+	 * Closes the result of a method if it is a stream or an iterator that was written
+	 * into the response.
+	 */
+	static void closeIfStreamed(Object result) {
+		if (isStreamedResult(result)) {
+			closeStreamedResults(List.of((AutoCloseable) result));
+		}
+	}
 
-		ExtDirectResponse directResponse = handleMethodCall(directRequest, request, response, locale);
-		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse()
-				|| directResponse.isStreamResponse();
-		Class<?> jsonView = directResponse.getJsonView();
+	private static void closeStreamedResults(List<AutoCloseable> streamedResults) {
+		for (AutoCloseable streamedResult : streamedResults) {
+			try {
+				streamedResult.close();
+			}
+			catch (Exception e) {
+				log.error("Error closing streamed store result", e);
+			}
+		}
+	}
 
-		Object responseObject;
-		if (jsonView == null) {
-			responseObject = Collections.singleton(directResponse);
+	/**
+	 * Creates the exception response for a call that did not return a response.
+	 */
+	ExtDirectResponse createExceptionResponse(ExtDirectRequest directRequest, Exception e, HttpServletRequest request) {
+		ExtDirectResponse directResponse = new ExtDirectResponse(directRequest);
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo != null) {
+			directResponse.setResult(handleException(methodInfo, directResponse, e, request));
 		}
 		else {
-			ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
-			String jsonResult = objectMapper.writerWithView(jsonView).writeValueAsString(directResponse.getResult());
-			responseObject = Collections.singleton(new ExtDirectResponseRaw(directResponse, jsonResult));
+			handleMethodNotFoundError(directResponse, directRequest.getAction(), directRequest.getMethod());
 		}
+		return directResponse;
+	}
 
-		writeJsonResponse(response, responseObject, null, streamResponse);
+	/**
+	 * Executes a method call in the thread pool. If the method returns a
+	 * {@link CompletionStage} the pool thread is released right away and the returned
+	 * future completes together with the stage. Cancelling the future interrupts the
+	 * method if it is still running in the pool.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	private Future<ExtDirectResponse> submitMethodCall(ExecutorService executorService, ExtDirectRequest directRequest,
+			HttpServletRequest request, HttpServletResponse response, Locale locale) {
+		PooledMethodCall methodCall = new PooledMethodCall();
+		methodCall.setExecution(executorService.submit(() -> {
+			try {
+				handleMethodCallAsync(directRequest, request, response, locale)
+					.whenComplete((directResponse, throwable) -> {
+						if (throwable != null) {
+							methodCall.completeExceptionally(throwable);
+						}
+						else {
+							methodCall.complete(directResponse);
+						}
+					});
+			}
+			catch (RuntimeException | Error e) {
+				methodCall.completeExceptionally(e);
+			}
+		}));
+		return methodCall;
 	}
 
 	private void handleMethodCallsSequential(List<ExtDirectRequest> directRequests, HttpServletRequest request,
 			HttpServletResponse response, Locale locale) throws IOException {
-		List<Object> directResponses = new ArrayList<>(directRequests.size());
-		boolean streamResponse = this.configurationService.getConfiguration().isStreamResponse();
-
-		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
 
+		long startTime = System.nanoTime();
+		List<Future<ExtDirectResponse>> futures = new ArrayList<>(directRequests.size());
+		DuplicateCallDetector duplicateCallDetector = new DuplicateCallDetector(this.methodInfoCache);
 		for (ExtDirectRequest directRequest : directRequests) {
-			ExtDirectResponse directResponse = handleMethodCall(directRequest, request, response, locale);
-			streamResponse = streamResponse || directResponse.isStreamResponse();
-			Class<?> jsonView = directResponse.getJsonView();
-			if (jsonView == null) {
-				directResponses.add(directResponse);
-			}
-			else {
-				String jsonResult = objectMapper.writerWithView(jsonView)
-					.writeValueAsString(directResponse.getResult());
-				directResponses.add(new ExtDirectResponseRaw(directResponse, jsonResult));
-			}
+			futures.add(duplicateCallDetector.submit(directRequest,
+					() -> handleMethodCallAsync(directRequest, request, response, locale)));
 		}
 
-		writeJsonResponse(response, directResponses, null, streamResponse);
+		writeMethodCallResponsesWhenComplete(directRequests, futures, startTime, request, response);
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	/**
+	 * Returns the object that is serialized for a response. If the response has a JSON
+	 * view the result is serialized with the view first.
+	 */
+	Object createResponseObject(ExtDirectResponse directResponse) {
+		Class<?> jsonView = directResponse.getJsonView();
+		if (jsonView != null) {
+			String jsonResult = this.configurationService.getJsonHandler()
+				.getMapper()
+				.writerWithView(jsonView)
+				.writeValueAsString(directResponse.getResult());
+			return new ExtDirectResponseRaw(directResponse, jsonResult);
+		}
+		return directResponse;
+	}
+
+	/**
+	 * Invokes the method of a request and waits for the result. Blocks the calling thread
+	 * if the method returns a {@link CompletionStage}, the router itself uses
+	 * {@link #handleMethodCallAsync(ExtDirectRequest, HttpServletRequest, HttpServletResponse, Locale)}.
+	 * A method that does not complete within the async timeout is answered with an
+	 * exception response.
+	 */
 	ExtDirectResponse handleMethodCall(ExtDirectRequest directRequest, HttpServletRequest request,
 			HttpServletResponse response, Locale locale) {
+		CompletableFuture<ExtDirectResponse> future = handleMethodCallAsync(directRequest, request, response, locale);
+		try {
+			return future.get(getAsyncTimeout(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException | ExecutionException e) {
+			future.cancel(true);
+			log.error("Error invoking method: " + directRequest.getMethod(), rootCause(e));
+			return createExceptionResponse(directRequest, e, request);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			return createExceptionResponse(directRequest, e, request);
+		}
+	}
+
+	/**
+	 * Invokes the method of a request. The returned future is already complete unless the
+	 * method returned a {@link CompletionStage} that is not yet complete. The future
+	 * never completes exceptionally, errors are reported as exception responses.
+	 */
+	CompletableFuture<ExtDirectResponse> handleMethodCallAsync(ExtDirectRequest directRequest,
+			HttpServletRequest request, HttpServletResponse response, Locale locale) {
 
 		ExtDirectResponse directResponse = new ExtDirectResponse(directRequest);
 		notifyExtRequestListenersBeforeRequest(directRequest, directResponse, request, response, locale);
 
+		CompletableFuture<ExtDirectResponse> future;
 		try {
-			MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+			future = invokeMethodCall(directRequest, directResponse, request, response, locale);
+		}
+		catch (RuntimeException | Error e) {
+			notifyExtRequestListenersAfterRequest(directRequest, directResponse, request, response, locale);
+			throw e;
+		}
 
-			if (methodInfo != null) {
+		if (future.isDone()) {
+			notifyExtRequestListenersAfterRequest(directRequest, directResponse, request, response, locale);
+			return future;
+		}
+		return future.whenComplete((result, throwable) -> notifyExtRequestListenersAfterRequest(directRequest,
+				directResponse, request, response, locale));
+	}
 
+	private CompletableFuture<ExtDirectResponse> invokeMethodCall(ExtDirectRequest directRequest,
+			ExtDirectResponse directResponse, HttpServletRequest request, HttpServletResponse response, Locale locale) {
+
+		MethodInfo methodInfo = this.methodInfoCache.get(directRequest.getAction(), directRequest.getMethod());
+		if (methodInfo == null) {
+			log.error("Error invoking method '" + directRequest.getAction() + "." + directRequest.getMethod()
+					+ "'. Method or Bean not found");
+			handleMethodNotFoundError(directResponse, directRequest.getAction(), directRequest.getMethod());
+			return CompletableFuture.completedFuture(directResponse);
+		}
+
+		ResultCache resultCache = methodInfo.getResultCache();
+		String cacheKey = null;
+		if (resultCache != null) {
+			cacheKey = createParametersKey(directRequest);
+			CachedResult cachedResult = resultCache.lookup(cacheKey);
+			if (cachedResult != null) {
+				if (cachedResult.refresh()) {
+					refreshCachedResult(directRequest, methodInfo, cacheKey, request, response, locale);
+				}
+				directResponse.setStreamResponse(methodInfo.isStreamResponse());
+				directResponse.setResult(new RawValue(cachedResult.json()));
+				return CompletableFuture.completedFuture(directResponse);
+			}
+		}
+		String resultCacheKey = cacheKey;
+
+		long startTime = System.nanoTime();
+		Object result;
+		try {
+			directResponse.setStreamResponse(methodInfo.isStreamResponse());
+			result = processRemotingRequest(request, response, locale, directRequest, methodInfo);
+		}
+		catch (Exception e) {
+			log.error("Error calling method: " + directRequest.getMethod(), rootCause(e));
+			directResponse.setResult(handleException(methodInfo, directResponse, e, request));
+			methodInfo.recordExecutionTime(System.nanoTime() - startTime);
+			return CompletableFuture.completedFuture(directResponse);
+		}
+
+		if (result instanceof CompletionStage<?> completionStage) {
+			return completionStage.handle((value, throwable) -> {
+				if (throwable != null) {
+					Exception e = new ExecutionException(
+							throwable instanceof CompletionException && throwable.getCause() != null
+									? throwable.getCause() : throwable);
+					log.error("Error calling method: " + directRequest.getMethod(), e.getCause());
+					directResponse.setResult(handleException(methodInfo, directResponse, e, request));
+				}
+				else {
+					setMethodCallResult(directRequest, directResponse, methodInfo,
+							value instanceof Optional<?> optional ? optional.orElse(null) : value, request);
+					cacheResult(resultCache, resultCacheKey, directResponse);
+				}
+				methodInfo.recordExecutionTime(System.nanoTime() - startTime);
+				return directResponse;
+			}).toCompletableFuture();
+		}
+
+		setMethodCallResult(directRequest, directResponse, methodInfo, result, request);
+		cacheResult(resultCache, resultCacheKey, directResponse);
+		methodInfo.recordExecutionTime(System.nanoTime() - startTime);
+		return CompletableFuture.completedFuture(directResponse);
+	}
+
+	/**
+	 * Creates a key from the data and metadata sent by the client. The entries of maps
+	 * are sorted, so the order of named parameters does not matter. The key is only used
+	 * in structures that belong to one method, so action and method are not part of it.
+	 */
+	private String createParametersKey(ExtDirectRequest directRequest) {
+		return this.configurationService.getJsonHandler()
+			.getMapper()
+			.writer()
+			.with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+			.writeValueAsString(Arrays.asList(directRequest.getData(), directRequest.getMetadata()));
+	}
+
+	/**
+	 * Refreshes a stale cached result in the background. The parameters are resolved with
+	 * the current request, cached methods only have client parameters. If the maximum
+	 * number of concurrent refreshes is reached, the refresh is left to a later call.
+	 */
+	private void refreshCachedResult(ExtDirectRequest directRequest, MethodInfo methodInfo, String cacheKey,
+			HttpServletRequest request, HttpServletResponse response, Locale locale) {
+
+		ResultCache resultCache = methodInfo.getResultCache();
+		Semaphore permits = this.configurationService.getCacheRefreshPermits();
+		if (!permits.tryAcquire()) {
+			resultCache.cancelRefresh(cacheKey);
+			return;
+		}
+
+		try {
+			Object[] parameters = this.configurationService.getParametersResolver()
+				.resolveParameters(request, response, locale, directRequest, methodInfo);
+			this.configurationService.getConfiguration().getCacheRefreshExecutorService().execute(() -> {
 				try {
-					directResponse.setStreamResponse(methodInfo.isStreamResponse());
-					Object result = processRemotingRequest(request, response, locale, directRequest, methodInfo);
+					Object result = invokeWithBulkhead(methodInfo,
+							() -> ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
+									directRequest.getAction(), methodInfo, parameters));
+					if (result instanceof CompletionStage<?> completionStage) {
+						result = completionStage.toCompletableFuture().get(getAsyncTimeout(), TimeUnit.MILLISECONDS);
+					}
+					ExtDirectResponse directResponse = new ExtDirectResponse(directRequest);
+					setMethodCallResult(directRequest, directResponse, methodInfo,
+							result instanceof Optional<?> optional ? optional.orElse(null) : result, null);
+					if (!cacheResult(resultCache, cacheKey, directResponse)) {
+						resultCache.cancelRefresh(cacheKey);
+					}
+				}
+				catch (Exception e) {
+					log.error("Error refreshing cached result of method: " + directRequest.getMethod(), rootCause(e));
+					resultCache.cancelRefresh(cacheKey);
+				}
+				finally {
+					permits.release();
+				}
+			});
+		}
+		catch (Exception e) {
+			log.error("Error starting the refresh of the cached result of method: " + directRequest.getMethod(), e);
+			resultCache.cancelRefresh(cacheKey);
+			permits.release();
+		}
+	}
 
-					if (result != null) {
+	/**
+	 * Serializes a successful result with its JSON view and stores it in the cache. The
+	 * result of the response is replaced with the serialized JSON, so it is not
+	 * serialized a second time.
+	 * @return true if the result is stored in the cache
+	 */
+	private boolean cacheResult(ResultCache resultCache, String cacheKey, ExtDirectResponse directResponse) {
+		Object result = directResponse.getResult();
+		if (resultCache == null || "exception".equals(directResponse.getType()) || result instanceof BaseStream
+				|| result instanceof Iterator || result instanceof StreamingStoreResult) {
+			return false;
+		}
 
-						ModelAndJsonView modelAndJsonView = null;
-						if (result instanceof ModelAndJsonView currentModelAndJsonView) {
-							modelAndJsonView = currentModelAndJsonView;
-							result = modelAndJsonView.getModel();
-						}
+		ObjectMapper objectMapper = this.configurationService.getJsonHandler().getMapper();
+		Class<?> jsonView = directResponse.getJsonView();
+		String json = jsonView != null ? objectMapper.writerWithView(jsonView).writeValueAsString(result)
+				: objectMapper.writeValueAsString(result);
+		resultCache.put(cacheKey, json);
+		directResponse.setResult(new RawValue(json));
+		directResponse.setJsonView(null);
+		return true;
+	}
 
-						if (methodInfo.isType(ExtDirectMethodType.FORM_LOAD)
-								&& !(result instanceof ExtDirectFormLoadResult)
-								&& !(result instanceof EdFormLoadResult)) {
-							ExtDirectFormLoadResult formLoadResult = new ExtDirectFormLoadResult(result);
-							if (result instanceof JsonViewHint jsonViewHint) {
-								formLoadResult.setJsonView(jsonViewHint.getJsonView());
-							}
-							result = formLoadResult;
-						}
-						else if ((methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
-								|| methodInfo.isType(ExtDirectMethodType.STORE_READ))
-								&& !(result instanceof ExtDirectStoreResult) && !(result instanceof EdStoreResult)
-								&& this.configurationService.getConfiguration().isAlwaysWrapStoreResponse()) {
-							if (result instanceof Collection collection) {
-								result = new ExtDirectStoreResult(collection);
-							}
-							else {
-								result = new ExtDirectStoreResult(result);
-							}
-						}
-						else if (methodInfo.isType(ExtDirectMethodType.FORM_POST_JSON)) {
-							if (result instanceof ExtDirectFormPostResult formPostResult) {
-								result = formPostResult.getResult();
-							}
-							else if (result instanceof EdFormPostResult formPostResult) {
-								result = formPostResult.result();
-							}
-						}
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void setMethodCallResult(ExtDirectRequest directRequest, ExtDirectResponse directResponse,
+			MethodInfo methodInfo, Object methodResult, HttpServletRequest request) {
+		try {
+			Object result = methodResult;
+			if (result != null) {
+
+				ModelAndJsonView modelAndJsonView = null;
+				if (result instanceof ModelAndJsonView currentModelAndJsonView) {
+					modelAndJsonView = currentModelAndJsonView;
+					result = modelAndJsonView.getModel();
+				}
 
-						directResponse.setResult(result);
-						if (modelAndJsonView != null) {
-							directResponse.setJsonView(getJsonView(modelAndJsonView, methodInfo.getJsonView()));
+				if (methodInfo.isType(ExtDirectMethodType.FORM_LOAD) && !(result instanceof ExtDirectFormLoadResult)
+						&& !(result instanceof EdFormLoadResult)) {
+					ExtDirectFormLoadResult formLoadResult = new ExtDirectFormLoadResult(result);
+					if (result instanceof JsonViewHint jsonViewHint) {
+						formLoadResult.setJsonView(jsonViewHint.getJsonView());
+					}
+					result = formLoadResult;
+				}
+				else if (methodInfo.isType(ExtDirectMethodType.STORE_READ) && (result instanceof StreamingStoreResult
+						|| result instanceof Stream || result instanceof Iterator)) {
+					if (this.configurationService.getConfiguration().isAlwaysWrapStoreResponse()) {
+						if (result instanceof Stream stream) {
+							result = new StreamingStoreResult<>(stream);
 						}
-						else {
-							directResponse.setJsonView(getJsonView(result, methodInfo.getJsonView()));
+						else if (result instanceof Iterator iterator) {
+							result = new StreamingStoreResult<>(iterator);
 						}
-
 					}
-					else if (methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
-							|| methodInfo.isType(ExtDirectMethodType.STORE_READ)) {
-						directResponse.setResult(Collections.emptyList());
+					// records are written one at a time directly into the response
+					directResponse.setStreamResponse(true);
+				}
+				else if ((methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
+						|| methodInfo.isType(ExtDirectMethodType.STORE_READ))
+						&& !(result instanceof ExtDirectStoreResult) && !(result instanceof EdStoreResult)
+						&& this.configurationService.getConfiguration().isAlwaysWrapStoreResponse()) {
+					if (result instanceof Collection collection) {
+						result = new ExtDirectStoreResult(collection);
+					}
+					else {
+						result = new ExtDirectStoreResult(result);
+					}
+				}
+				else if (methodInfo.isType(ExtDirectMethodType.FORM_POST_JSON)) {
+					if (result instanceof ExtDirectFormPostResult formPostResult) {
+						result = formPostResult.getResult();
+					}
+					else if (result instanceof EdFormPostResult formPostResult) {
+						result = formPostResult.result();
 					}
+				}
 
+				directResponse.setResult(result);
+				if (modelAndJsonView != null) {
+					directResponse.setJsonView(getJsonView(modelAndJsonView, methodInfo.getJsonView()));
 				}
-				catch (Exception e) {
-					log.error("Error calling method: " + directRequest.getMethod(), rootCause(e));
-					directResponse.setResult(handleException(methodInfo, directResponse, e, request));
+				else {
+					directResponse.setJsonView(getJsonView(result, methodInfo.getJsonView()));
 				}
+
 			}
-			else {
-				log.error("Error invoking method '" + directRequest.getAction() + "." + directRequest.getMethod()
-						+ "'. Method or Bean not found");
-				handleMethodNotFoundError(directResponse, directRequest.getAction(), directRequest.getMethod());
+			else if (methodInfo.isType(ExtDirectMethodType.STORE_MODIFY)
+					|| methodInfo.isType(ExtDirectMethodType.STORE_READ)) {
+				directResponse.setResult(Collections.emptyList());
 			}
-
-			return directResponse;
 		}
-		finally {
-			notifyExtRequestListenersAfterRequest(directRequest, directResponse, request, response, locale);
+		catch (Exception e) {
+			log.error("Error calling method: " + directRequest.getMethod(), rootCause(e));
+			directResponse.setResult(handleException(methodInfo, directResponse, e, request));
 		}
 	}
 
@@ -559,23 +1486,70 @@ public class RouterController {
 	private Object processRemotingRequest(HttpServletRequest request, HttpServletResponse response, Locale locale,
 			ExtDirectRequest directRequest, MethodInfo methodInfo) throws Exception {
 
-		Object[] parameters = this.configurationService.getParametersResolver()
-			.resolveParameters(request, response, locale, directRequest, methodInfo);
+		Callable<Object> invocation = () -> invokeWithBulkhead(methodInfo, () -> {
+			Object[] parameters = this.configurationService.getParametersResolver()
+				.resolveParameters(request, response, locale, directRequest, methodInfo);
+			return invokeSynchronized(request, methodInfo,
+					() -> ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
+							directRequest.getAction(), methodInfo, parameters));
+		});
+
+		SingleFlight singleFlight = methodInfo.getSingleFlight();
+		if (singleFlight != null) {
+			return singleFlight.execute(createParametersKey(directRequest), invocation, getAsyncTimeout());
+		}
+		return invocation.call();
+	}
 
+	/**
+	 * Runs the invocation of a method within the limits of its {@link Bulkhead}. The slot
+	 * of an asynchronous method is released when the returned {@link CompletionStage}
+	 * completes.
+	 */
+	private static Object invokeWithBulkhead(MethodInfo methodInfo, Callable<Object> invocation) throws Exception {
+		Bulkhead bulkhead = methodInfo.getBulkhead();
+		if (bulkhead == null) {
+			return invocation.call();
+		}
+
+		bulkhead.acquire();
+		boolean release = true;
+		try {
+			Object result = invocation.call();
+			if (result instanceof CompletionStage<?> completionStage) {
+				release = false;
+				return completionStage.whenComplete((value, throwable) -> bulkhead.release());
+			}
+			return result;
+		}
+		finally {
+			if (release) {
+				bulkhead.release();
+			}
+		}
+	}
+
+	/**
+	 * Runs the invocation of a method while holding the session lock, if the method is
+	 * synchronized on the session.
+	 */
+	private Object invokeSynchronized(HttpServletRequest request, MethodInfo methodInfo, Callable<Object> invocation)
+			throws Exception {
 		if (this.configurationService.getConfiguration().isSynchronizeOnSession()
 				|| methodInfo.isSynchronizeOnSession()) {
 			HttpSession session = request.getSession(false);
 			if (session != null) {
-				Object mutex = WebUtils.getSessionMutex(session);
-				synchronized (mutex) {
-					return ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(),
-							directRequest.getAction(), methodInfo, parameters);
+				Lock lock = this.configurationService.getSessionLockManager().getLock(session, methodInfo.isReadOnly());
+				lock.lock();
+				try {
+					return invocation.call();
+				}
+				finally {
+					lock.unlock();
 				}
 			}
 		}
-
-		return ExtDirectSpringUtil.invoke(this.configurationService.getApplicationContext(), directRequest.getAction(),
-				methodInfo, parameters);
+		return invocation.call();
 	}
 
 	private Object handleException(MethodInfo methodInfo, BaseResponse response, Exception e,
@@ -612,4 +1586,150 @@ public class RouterController {
 		return e.getCause() != null ? e.getCause() : e;
 	}
 
+	/**
+	 * Result of a method call that is executed in the thread pool.
+	 */
+	private static final class PooledMethodCall extends CompletableFuture<ExtDirectResponse> {
+
+		private volatile Future<?> execution;
+
+		void setExecution(Future<?> execution) {
+			this.execution = execution;
+			if (isCancelled()) {
+				execution.cancel(true);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			Future<?> currentExecution = this.execution;
+			if (currentExecution != null) {
+				currentExecution.cancel(mayInterruptIfRunning);
+			}
+			return super.cancel(mayInterruptIfRunning);
+		}
+
+	}
+
+	/**
+	 * Writes one response per line. Called by the threads that complete the calls. A call
+	 * that is registered is written only once and not at all after {@link #close()}.
+	 */
+	private final class NdjsonWriter {
+
+		private final OutputStream outputStream;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Set<ExtDirectRequest> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private boolean closed;
+
+		private volatile boolean failed;
+
+		NdjsonWriter(OutputStream outputStream) {
+			this.outputStream = outputStream;
+		}
+
+		void register(ExtDirectRequest directRequest) {
+			this.lock.lock();
+			try {
+				this.pending.add(directRequest);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Stops writing the responses of calls that are still running and returns these
+		 * calls.
+		 */
+		List<ExtDirectRequest> close() {
+			this.lock.lock();
+			try {
+				this.closed = true;
+				List<ExtDirectRequest> unfinished = new ArrayList<>(this.pending);
+				this.pending.clear();
+				return unfinished;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Writes the response of a registered call, or of a call that was never
+		 * registered if directRequest is null.
+		 */
+		void write(ExtDirectRequest directRequest, ExtDirectResponse directResponse) {
+			Object result = directResponse.getResult();
+			try {
+				if (this.failed) {
+					return;
+				}
+				byte[] json = serialize(directResponse);
+				this.lock.lock();
+				try {
+					if (this.closed || (directRequest != null && !this.pending.remove(directRequest))) {
+						return;
+					}
+					writeLine(json);
+				}
+				finally {
+					this.lock.unlock();
+				}
+			}
+			catch (IOException | RuntimeException e) {
+				handleWriteError(directResponse, e);
+			}
+			finally {
+				closeIfStreamed(result);
+			}
+		}
+
+		/**
+		 * Writes a response after {@link #close()}, used for the calls that did not
+		 * finish.
+		 */
+		void writeUnchecked(ExtDirectResponse directResponse) {
+			try {
+				if (this.failed) {
+					return;
+				}
+				byte[] json = serialize(directResponse);
+				this.lock.lock();
+				try {
+					writeLine(json);
+				}
+				finally {
+					this.lock.unlock();
+				}
+			}
+			catch (IOException | RuntimeException e) {
+				handleWriteError(directResponse, e);
+			}
+		}
+
+		private byte[] serialize(ExtDirectResponse directResponse) {
+			return RouterController.this.configurationService.getJsonHandler()
+				.getMapper()
+				.writeValueAsBytes(createResponseObject(directResponse));
+		}
+
+		private void writeLine(byte[] json) throws IOException {
+			this.outputStream.write(json);
+			this.outputStream.write('\n');
+			this.outputStream.flush();
+		}
+
+		private void handleWriteError(ExtDirectResponse directResponse, Exception e) {
+			log.error("Error writing the response of method: " + directResponse.getMethod(), e);
+			if (e instanceof IOException) {
+				this.failed = true;
+			}
+		}
+
+	}
+
 }
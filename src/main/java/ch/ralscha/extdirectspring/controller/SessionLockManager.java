@@ -0,0 +1,60 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Provides the locks that serialize the execution of methods with synchronizeOnSession.
+ * Every session gets its own lock, it is created on the first call and stored as a
+ * session attribute.
+ * <p>
+ * {@link ReentrantReadWriteLock}s are used instead of <code>synchronized</code> blocks on
+ * the session mutex, so a virtual thread that waits for a lock or holds it during a
+ * blocking call does not pin its carrier thread. Read-only methods share the read lock
+ * and run in parallel, all other methods take the exclusive write lock.
+ */
+final class SessionLockManager {
+
+	private static final String LOCK_ATTRIBUTE = SessionLockManager.class.getName() + ".LOCK";
+
+	/**
+	 * Returns the lock a method has to hold while it is executed.
+	 * @param session the HTTP session
+	 * @param readOnly true for the shared read lock, false for the exclusive write lock
+	 * @return the lock, never null
+	 */
+	Lock getLock(HttpSession session, boolean readOnly) {
+		Object lock = session.getAttribute(LOCK_ATTRIBUTE);
+		if (lock == null) {
+			synchronized (WebUtils.getSessionMutex(session)) {
+				lock = session.getAttribute(LOCK_ATTRIBUTE);
+				if (lock == null) {
+					lock = new ReentrantReadWriteLock();
+					session.setAttribute(LOCK_ATTRIBUTE, lock);
+				}
+			}
+		}
+		return readOnly ? ((ReadWriteLock) lock).readLock() : ((ReadWriteLock) lock).writeLock();
+	}
+
+}
@@ -0,0 +1,454 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.util.JsonHandler;
+import tools.jackson.core.type.TypeReference;
+
+/**
+ * {@link PollEventBus} that connects the nodes of a cluster with plain TCP connections.
+ * Every node listens on a socket and sends its events to the configured peers. Events are
+ * delivered to the local listeners immediately.
+ * <p>
+ * Every peer has its own sender thread and a bounded queue, so a slow or unreachable peer
+ * does not delay the others. Events that do not fit into the queue of a peer are dropped
+ * for this peer. The sender collects the events that are published while the previous
+ * frame is written, up to {@link #setMaxBatchSize(int)} events, and sends them as one
+ * frame: the length of the payload as int followed by the deflate compressed JSON array
+ * of the events. Frames are limited to 16 MB, compressed and decompressed. A connection
+ * to a peer is opened on the first frame and opened again after an error, frames that
+ * cannot be delivered are dropped.
+ * <p>
+ * Only the events published with the {@link PollEventPublisher} are distributed.
+ * {@link PollEventNotifier#notifyChanged(String)} only resumes the long polling requests
+ * and discards the broadcast responses of the node it is called on.
+ * <p>
+ * The bus does not authenticate the peers. Bind it to a loopback or private network
+ * address.
+ */
+public class TcpPollEventBus implements PollEventBus, InitializingBean, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(TcpPollEventBus.class);
+
+	private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+	private static final TypeReference<List<ExtDirectPollResponse>> EVENTS_TYPE = new TypeReference<>() {
+		// nothing here
+	};
+
+	private final JsonHandler jsonHandler;
+
+	private final InetSocketAddress bindAddress;
+
+	private final List<InetSocketAddress> peers = new CopyOnWriteArrayList<>();
+
+	private final List<PeerSender> senders = new CopyOnWriteArrayList<>();
+
+	private final Set<Socket> acceptedConnections = ConcurrentHashMap.newKeySet();
+
+	private final List<Consumer<ExtDirectPollResponse>> listeners = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	private int maxBatchSize = 100;
+
+	private int maxQueueSize = 10_000;
+
+	private int connectTimeout = 5_000;
+
+	private int readTimeout = 30_000;
+
+	private volatile boolean running;
+
+	private ServerSocket serverSocket;
+
+	public TcpPollEventBus(JsonHandler jsonHandler, InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+		this.jsonHandler = jsonHandler;
+		this.bindAddress = bindAddress;
+		this.peers.addAll(peers);
+	}
+
+	/**
+	 * Adds a node that receives the events of this node.
+	 * @param peer the address the other node listens on
+	 */
+	public void addPeer(InetSocketAddress peer) {
+		this.peers.add(peer);
+		if (this.running) {
+			startSender(peer);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of events sent in one frame.
+	 * <p>
+	 * Default value is 100
+	 * @param maxBatchSize new maximum
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of events that wait to be sent to one peer. Further events
+	 * for this peer are dropped until it catches up.
+	 * <p>
+	 * Default value is 10000
+	 * @param maxQueueSize new maximum
+	 */
+	public void setMaxQueueSize(int maxQueueSize) {
+		Assert.isTrue(maxQueueSize > 0, "maxQueueSize must be greater than 0");
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * Sets how long opening a connection to a peer may take in milliseconds.
+	 * <p>
+	 * Default value is 5000
+	 * @param connectTimeout new timeout, 0 waits forever
+	 */
+	public void setConnectTimeout(int connectTimeout) {
+		Assert.isTrue(connectTimeout >= 0, "connectTimeout must not be negative");
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Sets how long a peer may pause within a frame in milliseconds before its connection
+	 * is closed. Idle connections between frames are kept open.
+	 * <p>
+	 * Default value is 30000
+	 * @param readTimeout new timeout, 0 waits forever
+	 */
+	public void setReadTimeout(int readTimeout) {
+		Assert.isTrue(readTimeout >= 0, "readTimeout must not be negative");
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Returns the port the bus listens on. Useful if the bus is bound to port 0.
+	 * @return the local port
+	 */
+	public int getLocalPort() {
+		return this.serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Returns the number of events that were dropped because the queue of a peer was
+	 * full.
+	 * @return number of dropped events
+	 */
+	public long getDroppedEvents() {
+		return this.droppedEvents.get();
+	}
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		this.serverSocket = new ServerSocket();
+		this.serverSocket.bind(this.bindAddress);
+		this.running = true;
+
+		Thread acceptThread = new Thread(this::accept, "poll-event-bus-accept");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+
+		this.peers.forEach(this::startSender);
+	}
+
+	@Override
+	public void destroy() {
+		this.running = false;
+		closeQuietly(this.serverSocket);
+		this.senders.forEach(PeerSender::stop);
+		this.senders.clear();
+		this.acceptedConnections.forEach(TcpPollEventBus::closeQuietly);
+		this.acceptedConnections.clear();
+	}
+
+	@Override
+	public void publish(ExtDirectPollResponse pollResponse) {
+		deliver(pollResponse);
+		if (this.running) {
+			for (PeerSender sender : this.senders) {
+				sender.enqueue(pollResponse);
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<ExtDirectPollResponse> listener) {
+		this.listeners.add(listener);
+	}
+
+	private void startSender(InetSocketAddress peer) {
+		PeerSender sender = new PeerSender(peer);
+		this.senders.add(sender);
+		sender.start();
+	}
+
+	private void deliver(ExtDirectPollResponse pollResponse) {
+		for (Consumer<ExtDirectPollResponse> listener : this.listeners) {
+			try {
+				listener.accept(pollResponse);
+			}
+			catch (RuntimeException e) {
+				log.error("Error delivering poll event: " + pollResponse.getName(), e);
+			}
+		}
+	}
+
+	private void accept() {
+		while (this.running) {
+			try {
+				Socket socket = this.serverSocket.accept();
+				socket.setSoTimeout(this.readTimeout);
+				this.acceptedConnections.add(socket);
+				Thread readerThread = new Thread(() -> receive(socket),
+						"poll-event-bus-reader-" + socket.getRemoteSocketAddress());
+				readerThread.setDaemon(true);
+				readerThread.start();
+			}
+			catch (IOException e) {
+				if (this.running) {
+					log.error("Error accepting a poll event bus connection", e);
+				}
+			}
+		}
+	}
+
+	private void receive(Socket socket) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+			while (this.running) {
+				int first;
+				try {
+					first = in.read();
+				}
+				catch (SocketTimeoutException e) {
+					// no frame within the timeout, the connection is idle
+					continue;
+				}
+				if (first < 0) {
+					return;
+				}
+				int length = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8
+						| in.readUnsignedByte();
+				if (length <= 0 || length > MAX_FRAME_SIZE) {
+					throw new IOException("Invalid frame length: " + length);
+				}
+				byte[] frame = new byte[length];
+				in.readFully(frame);
+
+				List<ExtDirectPollResponse> events = this.jsonHandler.getMapper()
+					.readValue(decompress(frame), EVENTS_TYPE);
+				events.forEach(this::deliver);
+			}
+		}
+		catch (EOFException | SocketException e) {
+			// connection closed by the peer or by destroy
+		}
+		catch (IOException | RuntimeException e) {
+			log.error("Error receiving poll events from " + socket.getRemoteSocketAddress(), e);
+		}
+		finally {
+			this.acceptedConnections.remove(socket);
+			closeQuietly(socket);
+		}
+	}
+
+	private static byte[] compress(byte[] json) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(json.length / 4 + 64);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DeflaterOutputStream out = new DeflaterOutputStream(bos, deflater)) {
+			out.write(json);
+		}
+		finally {
+			deflater.end();
+		}
+		return bos.toByteArray();
+	}
+
+	/**
+	 * Inflates a frame. A frame that inflates to more than the maximum frame size is
+	 * rejected, it would otherwise allocate an arbitrary amount of memory.
+	 */
+	private static byte[] decompress(byte[] frame) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(frame.length * 4);
+		byte[] buffer = new byte[8192];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(frame);
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Truncated frame");
+				}
+				if (bos.size() + length > MAX_FRAME_SIZE) {
+					throw new IOException("Decompressed frame exceeds " + MAX_FRAME_SIZE + " bytes");
+				}
+				bos.write(buffer, 0, length);
+			}
+		}
+		catch (DataFormatException e) {
+			throw new IOException("Invalid frame", e);
+		}
+		finally {
+			inflater.end();
+		}
+		return bos.toByteArray();
+	}
+
+	private static void closeQuietly(AutoCloseable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (Exception e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Sends the events to one peer on its own thread.
+	 */
+	private final class PeerSender {
+
+		private final InetSocketAddress peer;
+
+		private final BlockingQueue<ExtDirectPollResponse> queue;
+
+		private volatile boolean overflowing;
+
+		private volatile Socket socket;
+
+		private Thread thread;
+
+		PeerSender(InetSocketAddress peer) {
+			this.peer = peer;
+			this.queue = new ArrayBlockingQueue<>(TcpPollEventBus.this.maxQueueSize);
+		}
+
+		void start() {
+			this.thread = new Thread(this::send, "poll-event-bus-sender-" + this.peer);
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+
+		void stop() {
+			if (this.thread != null) {
+				this.thread.interrupt();
+			}
+			closeQuietly(this.socket);
+		}
+
+		void enqueue(ExtDirectPollResponse pollResponse) {
+			if (!this.queue.offer(pollResponse)) {
+				TcpPollEventBus.this.droppedEvents.incrementAndGet();
+				if (!this.overflowing) {
+					this.overflowing = true;
+					log.warn("Dropping poll events for peer " + this.peer + ", the queue is full");
+				}
+			}
+		}
+
+		private void send() {
+			int maxBatchSize = TcpPollEventBus.this.maxBatchSize;
+			List<ExtDirectPollResponse> batch = new ArrayList<>(maxBatchSize);
+			while (TcpPollEventBus.this.running) {
+				try {
+					batch.add(this.queue.take());
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				this.queue.drainTo(batch, maxBatchSize - 1);
+				this.overflowing = false;
+
+				try {
+					byte[] json = TcpPollEventBus.this.jsonHandler.getMapper().writeValueAsBytes(batch);
+					if (json.length > MAX_FRAME_SIZE) {
+						log.error("Dropping " + batch.size() + " poll events for peer " + this.peer
+								+ ", the frame exceeds " + MAX_FRAME_SIZE + " bytes");
+					}
+					else {
+						sendFrame(compress(json));
+					}
+				}
+				catch (IOException | RuntimeException e) {
+					log.error("Error sending " + batch.size() + " poll events to peer " + this.peer, e);
+				}
+				batch.clear();
+			}
+			closeQuietly(this.socket);
+		}
+
+		private void sendFrame(byte[] frame) {
+			try {
+				if (this.socket == null) {
+					Socket newSocket = new Socket();
+					this.socket = newSocket;
+					newSocket.connect(this.peer, TcpPollEventBus.this.connectTimeout);
+					newSocket.setTcpNoDelay(true);
+				}
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+				out.writeInt(frame.length);
+				out.write(frame);
+				out.flush();
+			}
+			catch (IOException e) {
+				log.warn("Dropping poll events for peer " + this.peer + ": " + e.getMessage());
+				closeQuietly(this.socket);
+				this.socket = null;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.util.Map;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Handshake interceptor for the {@link WebSocketRouterHandler}. In addition to copying
+ * the attributes of the HTTP session into the WebSocket session it keeps the HTTP session
+ * itself, so methods called over the WebSocket connection get the session of the
+ * handshake request and can be synchronized on it.
+ * <p>
+ * Register it together with the handler:
+ *
+ * <pre>
+ * registry.addHandler(handler, "/router/websocket")
+ * 	.addInterceptors(new WebSocketHandshakeInterceptor());
+ * </pre>
+ */
+public class WebSocketHandshakeInterceptor extends HttpSessionHandshakeInterceptor {
+
+	/**
+	 * Name of the WebSocket session attribute that holds the {@link HttpSession}.
+	 */
+	public static final String HTTP_SESSION_ATTRIBUTE = WebSocketHandshakeInterceptor.class.getName() + ".HTTP_SESSION";
+
+	@Override
+	public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+			Map<String, Object> attributes) throws Exception {
+		if (request instanceof ServletServerHttpRequest servletRequest) {
+			HttpSession session = servletRequest.getServletRequest().getSession(isCreateSession());
+			if (session != null) {
+				attributes.put(HTTP_SESSION_ATTRIBUTE, session);
+			}
+		}
+		return super.beforeHandshake(request, response, wsHandler, attributes);
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * WebSocket endpoint for Ext Direct method calls. A text message contains the same JSON
+ * as the body of a request to /router, a single transaction or an array of transactions.
+ * Every transaction is executed like a call sent to the router and its response is sent
+ * back as a separate message as soon as it is complete, the client matches it by its tid.
+ * Poll events published with the {@link PollEventPublisher} are sent to every connected
+ * client as {@link ch.ralscha.extdirectspring.bean.ExtDirectPollResponse} messages.
+ * <p>
+ * The transactions of a message are executed concurrently if the
+ * {@link Configuration#setBatchedMethodsExecutorService(ExecutorService) batched methods
+ * executor} is set, otherwise one after the other. The called methods see a request with
+ * the headers, cookies and principal of the handshake. The HTTP session of the handshake
+ * is only available if the {@link WebSocketHandshakeInterceptor} is registered.
+ * <p>
+ * Requires spring-websocket. Register the handler with a
+ * {@link org.springframework.web.socket.config.annotation.WebSocketConfigurer} and set
+ * {@link Configuration#setWebSocketPath(String)} to advertise the url in the api
+ * configuration.
+ */
+public class WebSocketRouterHandler extends TextWebSocketHandler {
+
+	private static final Log log = LogFactory.getLog(WebSocketRouterHandler.class);
+
+	private static final String CONCURRENT_SESSION_ATTRIBUTE = WebSocketRouterHandler.class.getName() + ".SESSION";
+
+	private static final String PUSH_LISTENER_ATTRIBUTE = WebSocketRouterHandler.class.getName() + ".PUSH_LISTENER";
+
+	private final RouterController routerController;
+
+	private final ConfigurationService configurationService;
+
+	private final PollEventPublisher pollEventPublisher;
+
+	private int sendTimeLimit = 10_000;
+
+	private int bufferSizeLimit = 512 * 1024;
+
+	public WebSocketRouterHandler(RouterController routerController, ConfigurationService configurationService,
+			PollEventPublisher pollEventPublisher) {
+		this.routerController = routerController;
+		this.configurationService = configurationService;
+		this.pollEventPublisher = pollEventPublisher;
+	}
+
+	/**
+	 * Sets the time in milliseconds a message to one client may take to send. If it is
+	 * exceeded the session is closed.
+	 * <p>
+	 * Default value is 10000
+	 * @param sendTimeLimit new limit
+	 */
+	public void setSendTimeLimit(int sendTimeLimit) {
+		this.sendTimeLimit = sendTimeLimit;
+	}
+
+	/**
+	 * Sets the number of bytes that may be buffered for a slow client. If it is exceeded
+	 * the session is closed.
+	 * <p>
+	 * Default value is 524288 (512 KB)
+	 * @param bufferSizeLimit new limit
+	 */
+	public void setBufferSizeLimit(int bufferSizeLimit) {
+		this.bufferSizeLimit = bufferSizeLimit;
+	}
+
+	@Override
+	public void afterConnectionEstablished(WebSocketSession session) {
+		WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(session, this.sendTimeLimit,
+				this.bufferSizeLimit);
+		session.getAttributes().put(CONCURRENT_SESSION_ATTRIBUTE, concurrentSession);
+
+		if (this.pollEventPublisher != null) {
+			Consumer<String> pushListener = json -> send(concurrentSession, json);
+			session.getAttributes().put(PUSH_LISTENER_ATTRIBUTE, pushListener);
+			this.pollEventPublisher.addListener(pushListener);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+		Consumer<String> pushListener = (Consumer<String>) session.getAttributes().remove(PUSH_LISTENER_ATTRIBUTE);
+		if (pushListener != null) {
+			this.pollEventPublisher.removeListener(pushListener);
+		}
+	}
+
+	@Override
+	protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+		WebSocketSession concurrentSession = (WebSocketSession) session.getAttributes()
+			.get(CONCURRENT_SESSION_ATTRIBUTE);
+		List<ExtDirectRequest> directRequests = this.configurationService.getJsonHandler()
+			.readDirectRequests(new ByteArrayInputStream(message.asBytes()));
+		if (directRequests == null) {
+			log.error("Ignoring invalid WebSocket message from " + session.getRemoteAddress());
+			return;
+		}
+
+		ExecutorService executorService = directRequests.size() > 1
+				? this.configurationService.getConfiguration().getBatchedMethodsExecutorService() : null;
+		for (ExtDirectRequest directRequest : directRequests) {
+			if (executorService != null) {
+				try {
+					executorService.execute(() -> handleMethodCall(session, concurrentSession, directRequest));
+				}
+				catch (RejectedExecutionException e) {
+					log.error("Error executing method: " + directRequest.getMethod(), e);
+					sendResponse(concurrentSession, this.routerController.createExceptionResponse(directRequest, e,
+							new WebSocketServletRequest(session)));
+				}
+			}
+			else {
+				handleMethodCall(session, concurrentSession, directRequest);
+			}
+		}
+	}
+
+	/**
+	 * Executes a call and sends its response. Every call is answered, a failure that is
+	 * not reported as exception response by the router is turned into one.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	private void handleMethodCall(WebSocketSession session, WebSocketSession concurrentSession,
+			ExtDirectRequest directRequest) {
+		HttpServletRequest request = new WebSocketServletRequest(session);
+		HttpServletResponse response = new WebSocketServletResponse();
+		Locale locale = request.getLocale();
+
+		try {
+			this.routerController.handleMethodCallAsync(directRequest, request, response, locale)
+				.whenComplete((directResponse, throwable) -> {
+					if (throwable != null) {
+						sendExceptionResponse(concurrentSession, directRequest, throwable, request);
+					}
+					else {
+						sendResponse(concurrentSession, directResponse);
+					}
+				});
+		}
+		catch (RuntimeException e) {
+			sendExceptionResponse(concurrentSession, directRequest, e, request);
+		}
+	}
+
+	private void sendExceptionResponse(WebSocketSession session, ExtDirectRequest directRequest, Throwable throwable,
+			HttpServletRequest request) {
+		Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+				? throwable.getCause() : throwable;
+		log.error("Error calling method: " + directRequest.getMethod(), cause);
+		Exception e = cause instanceof Exception exception ? exception : new ExecutionException(cause);
+		sendResponse(session, this.routerController.createExceptionResponse(directRequest, e, request));
+	}
+
+	private void sendResponse(WebSocketSession session, ExtDirectResponse directResponse) {
+		Object result = directResponse.getResult();
+		try {
+			send(session,
+					this.configurationService.getJsonHandler()
+						.getMapper()
+						.writeValueAsString(this.routerController.createResponseObject(directResponse)));
+		}
+		catch (RuntimeException e) {
+			log.error("Error writing the response of method: " + directResponse.getMethod(), e);
+		}
+		finally {
+			RouterController.closeIfStreamed(result);
+		}
+	}
+
+	private static void send(WebSocketSession session, String json) {
+		if (!session.isOpen()) {
+			return;
+		}
+		try {
+			session.sendMessage(new TextMessage(json));
+		}
+		catch (IOException | RuntimeException e) {
+			log.debug("Error sending a WebSocket message", e);
+		}
+	}
+
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketSession;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+
+/**
+ * Request that is passed to the methods called over a WebSocket connection. Headers,
+ * cookies, the principal and the remote address are taken from the handshake request,
+ * attributes belong to the single method call. The HTTP session is the session of the
+ * handshake request if the {@link WebSocketHandshakeInterceptor} is registered, otherwise
+ * there is none and methods that are synchronized on the session run unsynchronized. The
+ * request has no parameters and no body.
+ */
+final class WebSocketServletRequest implements HttpServletRequest {
+
+	private final WebSocketSession session;
+
+	private final HttpHeaders headers;
+
+	private final HttpSession httpSession;
+
+	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+	WebSocketServletRequest(WebSocketSession session) {
+		this.session = session;
+		this.headers = session.getHandshakeHeaders();
+		this.httpSession = (HttpSession) session.getAttributes()
+			.get(WebSocketHandshakeInterceptor.HTTP_SESSION_ATTRIBUTE);
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return this.headers.getFirst(name);
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		List<String> values = this.headers.get(name);
+		return Collections.enumeration(values != null ? values : List.of());
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return Collections.enumeration(this.headers.headerNames());
+	}
+
+	@Override
+	public long getDateHeader(String name) {
+		return this.headers.containsHeader(name) ? this.headers.getFirstDate(name) : -1;
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = this.headers.getFirst(name);
+		return value != null ? Integer.parseInt(value) : -1;
+	}
+
+	@Override
+	public Cookie[] getCookies() {
+		List<Cookie> cookies = new ArrayList<>();
+		for (String header : this.headers.getOrEmpty(HttpHeaders.COOKIE)) {
+			for (String pair : StringUtils.delimitedListToStringArray(header, ";")) {
+				int separator = pair.indexOf('=');
+				if (separator > 0) {
+					cookies.add(new Cookie(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim()));
+				}
+			}
+		}
+		return cookies.isEmpty() ? null : cookies.toArray(new Cookie[0]);
+	}
+
+	@Override
+	public Principal getUserPrincipal() {
+		return this.session.getPrincipal();
+	}
+
+	@Override
+	public String getRemoteUser() {
+		Principal principal = this.session.getPrincipal();
+		return principal != null ? principal.getName() : null;
+	}
+
+	@Override
+	public boolean isUserInRole(String role) {
+		return false;
+	}
+
+	@Override
+	public String getAuthType() {
+		return null;
+	}
+
+	@Override
+	public boolean authenticate(HttpServletResponse response) {
+		return getUserPrincipal() != null;
+	}
+
+	@Override
+	public void login(String username, String password) throws ServletException {
+		throw new ServletException("Login is not supported over a WebSocket connection");
+	}
+
+	@Override
+	public void logout() {
+		// the principal belongs to the WebSocket session
+	}
+
+	@Override
+	public String getRemoteAddr() {
+		InetSocketAddress remoteAddress = this.session.getRemoteAddress();
+		return remoteAddress != null ? remoteAddress.getHostString() : null;
+	}
+
+	@Override
+	public String getRemoteHost() {
+		InetSocketAddress remoteAddress = this.session.getRemoteAddress();
+		return remoteAddress != null ? remoteAddress.getHostString() : null;
+	}
+
+	@Override
+	public int getRemotePort() {
+		InetSocketAddress remoteAddress = this.session.getRemoteAddress();
+		return remoteAddress != null ? remoteAddress.getPort() : 0;
+	}
+
+	@Override
+	public String getLocalAddr() {
+		InetSocketAddress localAddress = this.session.getLocalAddress();
+		return localAddress != null ? localAddress.getHostString() : null;
+	}
+
+	@Override
+	public String getLocalName() {
+		InetSocketAddress localAddress = this.session.getLocalAddress();
+		return localAddress != null ? localAddress.getHostString() : null;
+	}
+
+	@Override
+	public int getLocalPort() {
+		InetSocketAddress localAddress = this.session.getLocalAddress();
+		return localAddress != null ? localAddress.getPort() : 0;
+	}
+
+	@Override
+	public Locale getLocale() {
+		List<Locale> locales = this.headers.getAcceptLanguageAsLocales();
+		return locales.isEmpty() ? Locale.getDefault() : locales.get(0);
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		List<Locale> locales = this.headers.getAcceptLanguageAsLocales();
+		return Collections.enumeration(locales.isEmpty() ? List.of(Locale.getDefault()) : locales);
+	}
+
+	@Override
+	public String getMethod() {
+		return "GET";
+	}
+
+	@Override
+	public String getProtocol() {
+		return "HTTP/1.1";
+	}
+
+	@Override
+	public String getScheme() {
+		URI uri = this.session.getUri();
+		if (uri == null || uri.getScheme() == null) {
+			return "http";
+		}
+		return uri.getScheme().equals("wss") || uri.getScheme().equals("https") ? "https" : "http";
+	}
+
+	@Override
+	public boolean isSecure() {
+		return getScheme().equals("https");
+	}
+
+	@Override
+	public String getServerName() {
+		URI uri = this.session.getUri();
+		return uri != null ? uri.getHost() : null;
+	}
+
+	@Override
+	public int getServerPort() {
+		URI uri = this.session.getUri();
+		if (uri != null && uri.getPort() != -1) {
+			return uri.getPort();
+		}
+		return isSecure() ? 443 : 80;
+	}
+
+	@Override
+	public String getRequestURI() {
+		URI uri = this.session.getUri();
+		return uri != null ? uri.getPath() : null;
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		URI uri = this.session.getUri();
+		return new StringBuffer(uri != null ? uri.toString() : "");
+	}
+
+	@Override
+	public String getQueryString() {
+		URI uri = this.session.getUri();
+		return uri != null ? uri.getRawQuery() : null;
+	}
+
+	@Override
+	public String getContextPath() {
+		return "";
+	}
+
+	@Override
+	public String getServletPath() {
+		return "";
+	}
+
+	@Override
+	public String getPathInfo() {
+		return null;
+	}
+
+	@Override
+	public String getPathTranslated() {
+		return null;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return this.attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(this.attributes.keySet());
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (value != null) {
+			this.attributes.put(name, value);
+		}
+		else {
+			this.attributes.remove(name);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		this.attributes.remove(name);
+	}
+
+	@Override
+	public String getParameter(String name) {
+		return null;
+	}
+
+	@Override
+	public Enumeration<String> getParameterNames() {
+		return Collections.emptyEnumeration();
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		return null;
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return Map.of();
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return null;
+	}
+
+	@Override
+	public void setCharacterEncoding(String env) {
+		// there is no body
+	}
+
+	@Override
+	public int getContentLength() {
+		return -1;
+	}
+
+	@Override
+	public long getContentLengthLong() {
+		return -1;
+	}
+
+	@Override
+	public String getContentType() {
+		return null;
+	}
+
+	@Override
+	public ServletInputStream getInputStream() {
+		return new EmptyInputStream();
+	}
+
+	@Override
+	public BufferedReader getReader() {
+		return new BufferedReader(Reader.nullReader());
+	}
+
+	@Override
+	public Collection<Part> getParts() {
+		return List.of();
+	}
+
+	@Override
+	public Part getPart(String name) {
+		return null;
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		return this.httpSession;
+	}
+
+	@Override
+	public HttpSession getSession() {
+		return this.httpSession;
+	}
+
+	@Override
+	public String changeSessionId() {
+		if (this.httpSession == null) {
+			throw new IllegalStateException("No HTTP session");
+		}
+		return this.httpSession.getId();
+	}
+
+	@Override
+	public String getRequestedSessionId() {
+		return this.httpSession != null ? this.httpSession.getId() : null;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdValid() {
+		return this.httpSession != null;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromCookie() {
+		return this.httpSession != null;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromURL() {
+		return false;
+	}
+
+	@Override
+	public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws ServletException {
+		throw new ServletException("The connection is already a WebSocket connection");
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		return null;
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return null;
+	}
+
+	@Override
+	public AsyncContext startAsync() {
+		throw new IllegalStateException("Asynchronous processing is not supported");
+	}
+
+	@Override
+	public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+		throw new IllegalStateException("Asynchronous processing is not supported");
+	}
+
+	@Override
+	public boolean isAsyncStarted() {
+		return false;
+	}
+
+	@Override
+	public boolean isAsyncSupported() {
+		return false;
+	}
+
+	@Override
+	public AsyncContext getAsyncContext() {
+		throw new IllegalStateException("Asynchronous processing is not started");
+	}
+
+	@Override
+	public DispatcherType getDispatcherType() {
+		return DispatcherType.REQUEST;
+	}
+
+	@Override
+	public String getRequestId() {
+		return this.session.getId();
+	}
+
+	@Override
+	public String getProtocolRequestId() {
+		return "";
+	}
+
+	@Override
+	public ServletConnection getServletConnection() {
+		return null;
+	}
+
+	private static final class EmptyInputStream extends ServletInputStream {
+
+		@Override
+		public int read() {
+			return -1;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return true;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			try {
+				readListener.onAllDataRead();
+			}
+			catch (IOException e) {
+				readListener.onError(e);
+			}
+		}
+
+	}
+
+}
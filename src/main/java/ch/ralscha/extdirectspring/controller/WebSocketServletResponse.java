@@ -0,0 +1,271 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Response that is passed to the methods called over a WebSocket connection. The result
+ * of a method is sent as a WebSocket message, everything written to this response is
+ * discarded. Status, headers and content type are kept, so methods can read back what
+ * they set.
+ */
+final class WebSocketServletResponse implements HttpServletResponse {
+
+	private final HttpHeaders headers = new HttpHeaders();
+
+	private int status = SC_OK;
+
+	private String characterEncoding = StandardCharsets.ISO_8859_1.name();
+
+	private String contentType;
+
+	private Locale locale = Locale.getDefault();
+
+	private int bufferSize = 4096;
+
+	private ServletOutputStream outputStream;
+
+	private PrintWriter writer;
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		if (this.outputStream == null) {
+			this.outputStream = new DiscardingOutputStream();
+		}
+		return this.outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() {
+		if (this.writer == null) {
+			this.writer = new PrintWriter(Writer.nullWriter());
+		}
+		return this.writer;
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return this.characterEncoding;
+	}
+
+	@Override
+	public void setCharacterEncoding(String characterEncoding) {
+		if (characterEncoding != null) {
+			this.characterEncoding = characterEncoding;
+		}
+	}
+
+	@Override
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	@Override
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	@Override
+	public void setContentLength(int length) {
+		// the content is discarded
+	}
+
+	@Override
+	public void setContentLengthLong(long length) {
+		// the content is discarded
+	}
+
+	@Override
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	@Override
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	@Override
+	public void flushBuffer() {
+		// nothing is buffered
+	}
+
+	@Override
+	public void resetBuffer() {
+		// nothing is buffered
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return false;
+	}
+
+	@Override
+	public void reset() {
+		this.headers.clear();
+		this.status = SC_OK;
+		this.contentType = null;
+	}
+
+	@Override
+	public void setLocale(Locale locale) {
+		if (locale != null) {
+			this.locale = locale;
+		}
+	}
+
+	@Override
+	public Locale getLocale() {
+		return this.locale;
+	}
+
+	@Override
+	public void addCookie(Cookie cookie) {
+		// cookies cannot be set over a WebSocket connection
+	}
+
+	@Override
+	public boolean containsHeader(String name) {
+		return this.headers.containsHeader(name);
+	}
+
+	@Override
+	public String encodeURL(String url) {
+		return url;
+	}
+
+	@Override
+	public String encodeRedirectURL(String url) {
+		return url;
+	}
+
+	@Override
+	public void sendError(int sc, String msg) {
+		this.status = sc;
+	}
+
+	@Override
+	public void sendError(int sc) {
+		this.status = sc;
+	}
+
+	@Override
+	public void sendRedirect(String location, int sc, boolean clearBuffer) {
+		this.status = sc;
+		this.headers.set(HttpHeaders.LOCATION, location);
+	}
+
+	@Override
+	public void setDateHeader(String name, long date) {
+		this.headers.setDate(name, date);
+	}
+
+	@Override
+	public void addDateHeader(String name, long date) {
+		HttpHeaders dateHeader = new HttpHeaders();
+		dateHeader.setDate(name, date);
+		this.headers.addAll(name, dateHeader.getOrEmpty(name));
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		this.headers.set(name, value);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		this.headers.add(name, value);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		this.headers.set(name, String.valueOf(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		this.headers.add(name, String.valueOf(value));
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		this.status = sc;
+	}
+
+	@Override
+	public int getStatus() {
+		return this.status;
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return this.headers.getFirst(name);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		return List.copyOf(this.headers.getOrEmpty(name));
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return List.copyOf(this.headers.headerNames());
+	}
+
+	private static final class DiscardingOutputStream extends ServletOutputStream {
+
+		@Override
+		public void write(int b) {
+			// discarded
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// discarded
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			try {
+				writeListener.onWritePossible();
+			}
+			catch (IOException e) {
+				writeListener.onError(e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+/**
+ * Holds the serialized responses of a broadcast POLL method, one per event. A response is
+ * computed at most once per interval and the same bytes are sent to every client. The
+ * computation runs without a lock, requests for the same event that arrive in the
+ * meantime wait for its result. A computation that throws an exception is not cached.
+ * <p>
+ * At most {@link #MAX_EVENTS} events are cached, the responses of further events are
+ * computed for every request.
+ *
+ * @see ExtDirectMethod#broadcastInterval()
+ */
+public final class BroadcastCache {
+
+	/**
+	 * The maximum number of events with a cached response. The event is part of the poll
+	 * URL, so the number of events is not limited by the methods.
+	 */
+	public static final int MAX_EVENTS = 64;
+
+	private final long intervalNanos;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public BroadcastCache(long intervalMillis) {
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+	}
+
+	/**
+	 * Returns the cached response of an event or computes it if the interval has passed.
+	 * @param event the name of the poll event
+	 * @param computation serializes the response of the poll method
+	 * @param timeoutMillis how long to wait for a computation that is already running
+	 * @return the serialized response
+	 * @throws java.util.concurrent.TimeoutException if the running computation does not
+	 * finish in time
+	 * @throws Exception the exception thrown by the computation
+	 */
+	public byte[] get(String event, Callable<byte[]> computation, long timeoutMillis) throws Exception {
+		while (true) {
+			Entry entry = this.entries.get(event);
+			if (entry != null && !entry.isExpired(this.intervalNanos)) {
+				return await(entry, timeoutMillis);
+			}
+
+			Entry computing = new Entry();
+			if (entry == null && this.entries.size() >= MAX_EVENTS) {
+				this.entries.values().removeIf(current -> current.isExpired(this.intervalNanos));
+				if (this.entries.size() >= MAX_EVENTS) {
+					return computation.call();
+				}
+			}
+			if (entry == null ? this.entries.putIfAbsent(event, computing) == null
+					: this.entries.replace(event, entry, computing)) {
+				return compute(event, computing, computation);
+			}
+		}
+	}
+
+	/**
+	 * Discards the cached response of an event. The next request computes it again, a
+	 * computation that is running is not cached.
+	 * @param event the name of the poll event
+	 */
+	public void clear(String event) {
+		this.entries.remove(event);
+	}
+
+	private byte[] compute(String event, Entry entry, Callable<byte[]> computation) throws Exception {
+		try {
+			byte[] json = computation.call();
+			entry.complete(json);
+			return json;
+		}
+		catch (Throwable e) {
+			this.entries.remove(event, entry);
+			entry.response.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private static byte[] await(Entry entry, long timeoutMillis) throws Exception {
+		try {
+			return entry.response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private static final class Entry {
+
+		private final CompletableFuture<byte[]> response = new CompletableFuture<>();
+
+		private volatile long completed;
+
+		void complete(byte[] json) {
+			this.completed = System.nanoTime();
+			this.response.complete(json);
+		}
+
+		/**
+		 * A response that is still computed never expires, the requests wait for it.
+		 */
+		boolean isExpired(long intervalNanos) {
+			return this.response.isCompletedExceptionally()
+					|| (this.response.isDone() && System.nanoTime() - this.completed >= intervalNanos);
+		}
+
+	}
+
+}
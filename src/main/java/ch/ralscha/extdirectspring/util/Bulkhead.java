@@ -0,0 +1,95 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+/**
+ * Limits the number of concurrent calls of a method and the number of calls that wait for
+ * a free slot.
+ *
+ * @see ExtDirectMethod#maxConcurrentCalls()
+ * @see ExtDirectMethod#maxWaitingCalls()
+ */
+public final class Bulkhead {
+
+	private final String name;
+
+	private final int maxConcurrentCalls;
+
+	private final int maxWaitingCalls;
+
+	private final Semaphore permits;
+
+	private final AtomicInteger waitingCalls = new AtomicInteger();
+
+	public Bulkhead(String name, int maxConcurrentCalls, int maxWaitingCalls) {
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitingCalls = Math.max(0, maxWaitingCalls);
+		this.permits = new Semaphore(maxConcurrentCalls, true);
+	}
+
+	/**
+	 * Acquires a slot for one call. Waits for a free slot if the maximum number of
+	 * concurrent calls is reached and the waiting queue is not full. Every successful
+	 * call of this method must be followed by a call of {@link #release()}.
+	 * @throws RejectedExecutionException if the waiting queue is full or the thread is
+	 * interrupted while waiting
+	 */
+	public void acquire() {
+		if (this.permits.tryAcquire()) {
+			return;
+		}
+
+		if (this.waitingCalls.incrementAndGet() > this.maxWaitingCalls) {
+			this.waitingCalls.decrementAndGet();
+			throw new RejectedExecutionException("Method '" + this.name + "' is limited to " + this.maxConcurrentCalls
+					+ " concurrent and " + this.maxWaitingCalls + " waiting calls");
+		}
+
+		try {
+			this.permits.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException("Interrupted while waiting for method '" + this.name + "'", e);
+		}
+		finally {
+			this.waitingCalls.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Releases the slot acquired with {@link #acquire()}.
+	 */
+	public void release() {
+		this.permits.release();
+	}
+
+	public int getMaxConcurrentCalls() {
+		return this.maxConcurrentCalls;
+	}
+
+	public int getMaxWaitingCalls() {
+		return this.maxWaitingCalls;
+	}
+
+}
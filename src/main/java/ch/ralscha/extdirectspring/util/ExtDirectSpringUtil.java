@@ -90,11 +90,17 @@ public final class ExtDirectSpringUtil {
 	 */
 	public static @Nullable Object invoke(ApplicationContext context, String beanName, MethodInfo methodInfo,
 			final Object[] params) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		Object bean = context.getBean(beanName);
-
-		Method handlerMethod = methodInfo.getMethod();
-		ReflectionUtils.makeAccessible(handlerMethod);
-		Object result = handlerMethod.invoke(bean, params);
+		Object result;
+		HandlerMethodInvoker invoker = methodInfo != null ? methodInfo.getInvoker() : null;
+		if (invoker != null) {
+			result = invoker.invoke(context, beanName, params);
+		}
+		else {
+			Object bean = context.getBean(beanName);
+			Method handlerMethod = methodInfo.getMethod();
+			ReflectionUtils.makeAccessible(handlerMethod);
+			result = handlerMethod.invoke(bean, params);
+		}
 
 		if (result instanceof Optional optional) {
 			return optional.orElse(null);
@@ -0,0 +1,145 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invokes the method of a {@link MethodInfo}. The {@link MethodHandle} is created once
+ * when the {@link MethodInfo} is built. The bean of a singleton scoped bean definition is
+ * looked up on the first call and then reused, beans of all other scopes are fetched from
+ * the application context on every call.
+ */
+final class HandlerMethodInvoker {
+
+	private static final Log log = LogFactory.getLog(HandlerMethodInvoker.class);
+
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private static final Object[] EMPTY_ARGS = new Object[0];
+
+	private final Method method;
+
+	private final Class<?>[] parameterTypes;
+
+	private final @Nullable MethodHandle methodHandle;
+
+	private volatile @Nullable CachedBean cachedBean;
+
+	HandlerMethodInvoker(Method method) {
+		this.method = method;
+		this.parameterTypes = method.getParameterTypes();
+
+		MethodHandle handle = null;
+		try {
+			ReflectionUtils.makeAccessible(method);
+			handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			handle = handle.asSpreader(Object[].class, this.parameterTypes.length).asType(INVOKER_TYPE);
+		}
+		catch (IllegalAccessException | RuntimeException e) {
+			log.debug("Unable to create a method handle for " + method + ". Falling back to reflection", e);
+		}
+		this.methodHandle = handle;
+	}
+
+	@Nullable Object invoke(ApplicationContext context, String beanName, Object @Nullable [] args)
+			throws IllegalAccessException, InvocationTargetException {
+		Object bean = getBean(context, beanName);
+		Object[] params = args != null ? args : EMPTY_ARGS;
+
+		MethodHandle handle = this.methodHandle;
+		if (handle == null) {
+			return this.method.invoke(bean, params);
+		}
+
+		checkArguments(params);
+		try {
+			return handle.invokeExact(bean, params);
+		}
+		catch (ClassCastException e) {
+			// thrown by the method handle when an argument has the wrong type
+			if (!argumentsMatch(bean, params)) {
+				throw new IllegalArgumentException("argument type mismatch", e);
+			}
+			throw new InvocationTargetException(e);
+		}
+		catch (Throwable e) {
+			throw new InvocationTargetException(e);
+		}
+	}
+
+	private Object getBean(ApplicationContext context, String beanName) {
+		CachedBean cached = this.cachedBean;
+		if (cached != null && cached.context == context && cached.beanName.equals(beanName)) {
+			return cached.bean;
+		}
+
+		Object bean = context.getBean(beanName);
+		if (context.isSingleton(beanName)) {
+			this.cachedBean = new CachedBean(context, beanName, bean);
+		}
+		return bean;
+	}
+
+	/**
+	 * Reports the same errors as {@link Method#invoke(Object, Object...)} for a wrong
+	 * number of arguments and for null values of primitive parameters.
+	 */
+	private void checkArguments(Object[] params) {
+		if (params.length != this.parameterTypes.length) {
+			throw new IllegalArgumentException(
+					"wrong number of arguments: " + params.length + " expected: " + this.parameterTypes.length);
+		}
+		for (int i = 0; i < params.length; i++) {
+			if (params[i] == null && this.parameterTypes[i].isPrimitive()) {
+				throw new IllegalArgumentException(
+						"argument " + i + " of type " + this.parameterTypes[i].getName() + " must not be null");
+			}
+		}
+	}
+
+	private boolean argumentsMatch(Object bean, Object[] params) {
+		if (!this.method.getDeclaringClass().isInstance(bean)) {
+			return false;
+		}
+		for (int i = 0; i < params.length; i++) {
+			Object param = params[i];
+			if (param != null && !ClassUtils.resolvePrimitiveIfNecessary(this.parameterTypes[i]).isInstance(param)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private record CachedBean(ApplicationContext context, String beanName, Object bean) {
+	}
+
+}
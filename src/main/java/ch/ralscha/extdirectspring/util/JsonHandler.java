@@ -16,15 +16,25 @@
 package ch.ralscha.extdirectspring.util;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
 import org.springframework.util.Assert;
 
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.JavaType;
 import tools.jackson.databind.MapperFeature;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.json.JsonMapper;
 
 /**
@@ -32,6 +42,10 @@ import tools.jackson.databind.json.JsonMapper;
  */
 public class JsonHandler {
 
+	private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+		/* empty */
+	};
+
 	private ObjectMapper mapper;
 
 	public JsonHandler() {
@@ -145,6 +159,101 @@ public class JsonHandler {
 		}
 	}
 
+	/**
+	 * Reads one Ext Direct request or an array of batched requests from an InputStream.
+	 * The JSON is parsed in a single streaming pass directly into
+	 * {@link ExtDirectRequest} objects without building an intermediate tree. In case of
+	 * an exception returns null and logs the exception.
+	 * @param is a InputStream
+	 * @return the list of requests, null if the input does not contain a JSON object or
+	 * array or there is an exception
+	 */
+	public @Nullable List<ExtDirectRequest> readDirectRequests(InputStream is) {
+		List<ExtDirectRequest> directRequests = new ArrayList<>();
+		if (readDirectRequests(is, directRequests::add)) {
+			return directRequests;
+		}
+		return null;
+	}
+
+	/**
+	 * Reads one Ext Direct request or an array of batched requests from an InputStream
+	 * and hands every request to the consumer as soon as its JSON object is complete. The
+	 * consumer is called while the rest of the input is still being parsed. In case of a
+	 * parse exception the exception is logged, the remaining input is ignored and false
+	 * is returned. Requests read before the error have already been passed to the
+	 * consumer.
+	 * @param is a InputStream
+	 * @param consumer receives every request in the order they appear in the input
+	 * @return true if the whole input was read, false if the input does not contain a
+	 * JSON object or an array of objects or there is a parse exception
+	 */
+	public boolean readDirectRequests(InputStream is, Consumer<ExtDirectRequest> consumer) {
+		ObjectReader dataReader = this.mapper.readerFor(Object.class)
+			.without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+		ObjectReader metadataReader = dataReader.forType(METADATA_TYPE);
+
+		try (JsonParser parser = this.mapper.createParser(is)) {
+			JsonToken token = parser.nextToken();
+			if (token == JsonToken.START_OBJECT) {
+				consumer.accept(readDirectRequest(parser, dataReader, metadataReader));
+				return true;
+			}
+			if (token == JsonToken.START_ARRAY) {
+				while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+					consumer.accept(readDirectRequest(parser, dataReader, metadataReader));
+				}
+				if (token != JsonToken.END_ARRAY) {
+					LogFactory.getLog(JsonHandler.class)
+						.info("deserialize json to object: batch contains a non object element " + token);
+					return false;
+				}
+				return true;
+			}
+			return false;
+		}
+		catch (JacksonException e) {
+			LogFactory.getLog(JsonHandler.class).info("deserialize json to object", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the fields of one request. The parser must point to the START_OBJECT token
+	 * and is positioned on the matching END_OBJECT token when this method returns.
+	 */
+	private static ExtDirectRequest readDirectRequest(JsonParser parser, ObjectReader dataReader,
+			ObjectReader metadataReader) {
+		ExtDirectRequest directRequest = new ExtDirectRequest();
+
+		while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+			String name = parser.currentName();
+			JsonToken valueToken = parser.nextToken();
+
+			switch (name) {
+				case "action" -> directRequest.setAction(readString(parser, valueToken));
+				case "method" -> directRequest.setMethod(readString(parser, valueToken));
+				case "type" -> directRequest.setType(readString(parser, valueToken));
+				case "tid" -> directRequest.setTid(parser.getValueAsInt());
+				case "data" ->
+					directRequest.setData(valueToken == JsonToken.VALUE_NULL ? null : dataReader.readValue(parser));
+				case "metadata" -> directRequest
+					.setMetadata(valueToken == JsonToken.VALUE_NULL ? null : metadataReader.readValue(parser));
+				default -> parser.skipChildren();
+			}
+		}
+
+		return directRequest;
+	}
+
+	private static @Nullable String readString(JsonParser parser, JsonToken valueToken) {
+		if (valueToken.isScalarValue()) {
+			return parser.getValueAsString();
+		}
+		parser.skipChildren();
+		return null;
+	}
+
 	/**
 	 * Converts one object into another.
 	 * @param object the source
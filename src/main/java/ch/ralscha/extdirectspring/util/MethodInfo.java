@@ -19,8 +19,10 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.BaseStream;
 
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
@@ -30,11 +32,13 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.method.HandlerMethod;
 
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
 import ch.ralscha.extdirectspring.annotation.ExtDirectDocParameters;
 import ch.ralscha.extdirectspring.annotation.ExtDirectDocReturn;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodDocumentation;
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.bean.StreamingStoreResult;
 import ch.ralscha.extdirectspring.bean.api.Action;
 import ch.ralscha.extdirectspring.bean.api.ActionDoc;
 import ch.ralscha.extdirectspring.bean.api.PollingProvider;
@@ -53,12 +57,30 @@ public final class MethodInfo {
 
 	private final boolean synchronizeOnSession;
 
+	private final boolean readOnly;
+
 	private final boolean streamResponse;
 
+	private final boolean deduplicateCalls;
+
+	private final @Nullable SingleFlight singleFlight;
+
+	private final @Nullable Bulkhead bulkhead;
+
+	private final @Nullable ResultCache resultCache;
+
+	private final @Nullable BroadcastCache broadcastCache;
+
+	private final long longPollingTimeout;
+
 	private @Nullable List<ParameterInfo> parameters;
 
+	private ParameterBinder[] parameterBinders = new ParameterBinder[0];
+
 	private @Nullable Method method;
 
+	private @Nullable HandlerMethodInvoker invoker;
+
 	private @Nullable String forwardPath;
 
 	private @Nullable HandlerMethod handlerMethod;
@@ -69,6 +91,8 @@ public final class MethodInfo {
 
 	private @Nullable PollingProvider pollingProvider;
 
+	private volatile long averageExecutionTime = -1;
+
 	public MethodInfo(Class<?> clazz, ApplicationContext context, String beanName, Method method) {
 
 		ExtDirectMethod extDirectMethodAnnotation = AnnotatedElementUtils.findMergedAnnotation(method,
@@ -91,11 +115,32 @@ public final class MethodInfo {
 		}
 
 		this.synchronizeOnSession = extDirectMethodAnnotation.synchronizeOnSession();
+		this.readOnly = extDirectMethodAnnotation.readOnly();
 		this.streamResponse = extDirectMethodAnnotation.streamResponse();
+		// a streamed result can only be written once
+		boolean sharableResult = !BaseStream.class.isAssignableFrom(method.getReturnType())
+				&& !Iterator.class.isAssignableFrom(method.getReturnType())
+				&& !StreamingStoreResult.class.isAssignableFrom(method.getReturnType());
+		this.deduplicateCalls = extDirectMethodAnnotation.deduplicateCalls() && sharableResult;
+		this.broadcastCache = this.type == ExtDirectMethodType.POLL && extDirectMethodAnnotation.broadcastInterval() > 0
+				? new BroadcastCache(extDirectMethodAnnotation.broadcastInterval()) : null;
+		this.longPollingTimeout = this.type == ExtDirectMethodType.POLL
+				? Math.max(0, extDirectMethodAnnotation.longPollingTimeout()) : 0;
+
+		if (extDirectMethodAnnotation.maxConcurrentCalls() > 0) {
+			this.bulkhead = new Bulkhead(beanName + "." + method.getName(),
+					extDirectMethodAnnotation.maxConcurrentCalls(), extDirectMethodAnnotation.maxWaitingCalls());
+		}
+		else {
+			this.bulkhead = null;
+		}
 
 		if (this.type != ExtDirectMethodType.FORM_POST) {
 			this.method = method;
+			this.invoker = new HandlerMethodInvoker(method);
 			this.parameters = buildParameterList(clazz, method);
+			this.parameterBinders = this.type == ExtDirectMethodType.POLL
+					? ParameterBinder.forPollMethod(this.parameters) : ParameterBinder.forRemoteMethod(this.parameters);
 
 			this.collectionType = extDirectMethodAnnotation.entryClass() == Object.class ? null
 					: extDirectMethodAnnotation.entryClass();
@@ -141,6 +186,39 @@ public final class MethodInfo {
 			this.handlerMethod = new HandlerMethod(beanName, context, method).createWithResolvedBean();
 		}
 
+		if (extDirectMethodAnnotation.singleFlight() && sharableResult && this.parameters != null) {
+			// the key only contains values sent by the client
+			if (this.parameters.stream().allMatch(ParameterInfo::isClientParameter)) {
+				this.singleFlight = new SingleFlight();
+			}
+			else {
+				LogFactory.getLog(MethodInfo.class)
+					.warn("singleFlight ignored on " + beanName + "." + method.getName()
+							+ ", the method has parameters that are not sent by the client");
+				this.singleFlight = null;
+			}
+		}
+		else {
+			this.singleFlight = null;
+		}
+
+		ExtDirectCacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, ExtDirectCacheable.class);
+		if (cacheable != null && this.parameters != null && this.type != ExtDirectMethodType.POLL) {
+			// the cache key only contains values sent by the client
+			if (this.parameters.stream().allMatch(ParameterInfo::isClientParameter)) {
+				this.resultCache = ResultCache.of(cacheable);
+			}
+			else {
+				LogFactory.getLog(MethodInfo.class)
+					.warn("@ExtDirectCacheable ignored on " + beanName + "." + method.getName()
+							+ ", the method has parameters that are not sent by the client");
+				this.resultCache = null;
+			}
+		}
+		else {
+			this.resultCache = null;
+		}
+
 		switch (this.type) {
 			case SIMPLE -> {
 				int paramLength = 0;
@@ -274,6 +352,13 @@ public final class MethodInfo {
 		return this.method;
 	}
 
+	/**
+	 * Returns the prebuilt invoker of the method, null for FORM_POST methods.
+	 */
+	@Nullable HandlerMethodInvoker getInvoker() {
+		return this.invoker;
+	}
+
 	public @Nullable String getForwardPath() {
 		return this.forwardPath;
 	}
@@ -286,6 +371,14 @@ public final class MethodInfo {
 		return this.parameters;
 	}
 
+	/**
+	 * Returns the binders that resolve the parameters of the method, in the order of the
+	 * parameters.
+	 */
+	ParameterBinder[] getParameterBinders() {
+		return this.parameterBinders;
+	}
+
 	public @Nullable Class<?> getCollectionType() {
 		return this.collectionType;
 	}
@@ -302,10 +395,79 @@ public final class MethodInfo {
 		return this.synchronizeOnSession;
 	}
 
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+
 	public boolean isStreamResponse() {
 		return this.streamResponse;
 	}
 
+	public boolean isDeduplicateCalls() {
+		return this.deduplicateCalls;
+	}
+
+	/**
+	 * Returns the single flight that coalesces concurrent identical calls of the method.
+	 * @return the single flight, null if identical calls are not coalesced
+	 */
+	public @Nullable SingleFlight getSingleFlight() {
+		return this.singleFlight;
+	}
+
+	/**
+	 * Returns the cache of the response of a broadcast POLL method.
+	 * @return the cache, null if the method is not a broadcast poll provider
+	 */
+	public @Nullable BroadcastCache getBroadcastCache() {
+		return this.broadcastCache;
+	}
+
+	/**
+	 * Returns how long a poll request of a POLL method waits for a change.
+	 * @return the timeout in milliseconds, 0 if long polling is disabled
+	 */
+	public long getLongPollingTimeout() {
+		return this.longPollingTimeout;
+	}
+
+	/**
+	 * Returns the bulkhead that limits the concurrent calls of the method.
+	 * @return the bulkhead, null if the number of concurrent calls is not limited
+	 */
+	public @Nullable Bulkhead getBulkhead() {
+		return this.bulkhead;
+	}
+
+	/**
+	 * Returns the cache of the serialized results of the method.
+	 * @return the cache, null if the method is not annotated with
+	 * {@link ExtDirectCacheable}
+	 */
+	public @Nullable ResultCache getResultCache() {
+		return this.resultCache;
+	}
+
+	/**
+	 * Returns the exponentially weighted moving average of the execution time of the
+	 * method in nanoseconds.
+	 * @return the average execution time, -1 if the method was never called
+	 */
+	public long getAverageExecutionTime() {
+		return this.averageExecutionTime;
+	}
+
+	/**
+	 * Adds the execution time of one call to the moving average. Every new sample has a
+	 * weight of 1/8. Concurrent updates may overwrite each other, which is acceptable for
+	 * an estimate.
+	 * @param nanos the execution time in nanoseconds
+	 */
+	public void recordExecutionTime(long nanos) {
+		long average = this.averageExecutionTime;
+		this.averageExecutionTime = average < 0 ? nanos : average + (nanos - average) / 8;
+	}
+
 	public @Nullable PollingProvider getPollingProvider() {
 		return this.pollingProvider;
 	}
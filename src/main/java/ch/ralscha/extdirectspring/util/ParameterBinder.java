@@ -0,0 +1,163 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Resolves the value of one method parameter. The binders of a method are created once
+ * when the {@link MethodInfo} is built, so that {@link ParametersResolver} does not have
+ * to inspect the type and the annotations of a parameter on every call.
+ */
+@FunctionalInterface
+interface ParameterBinder {
+
+	@Nullable Object bind(ParametersResolver resolver, Context context);
+
+	/**
+	 * Creates the binders for the parameters of a remote method (every type except POLL
+	 * and FORM_POST).
+	 * @param parameters the parameters of the method
+	 * @return one binder for every parameter
+	 */
+	static ParameterBinder[] forRemoteMethod(List<ParameterInfo> parameters) {
+		ParameterBinder[] binders = new ParameterBinder[parameters.size()];
+		for (int i = 0; i < binders.length; i++) {
+			binders[i] = forRemoteParameter(parameters.get(i));
+		}
+		return binders;
+	}
+
+	/**
+	 * Creates the binders for the parameters of a POLL method. Client parameters of a
+	 * POLL method are read from the HTTP request parameters.
+	 * @param parameters the parameters of the method
+	 * @return one binder for every parameter
+	 */
+	static ParameterBinder[] forPollMethod(List<ParameterInfo> parameters) {
+		ParameterBinder[] binders = new ParameterBinder[parameters.size()];
+		for (int i = 0; i < binders.length; i++) {
+			ParameterInfo parameter = parameters.get(i);
+			if (parameter.isSupportedParameter()) {
+				binders[i] = forSupportedParameter(parameter);
+			}
+			else if (parameter.hasRequestHeaderAnnotation()) {
+				binders[i] = (resolver, context) -> resolver.resolveRequestHeader(context.request, parameter);
+			}
+			else if (parameter.hasCookieValueAnnotation()) {
+				binders[i] = (resolver, context) -> resolver.resolveCookieValue(context.request, parameter);
+			}
+			else if (parameter.hasAuthenticationPrincipalAnnotation()) {
+				binders[i] = (resolver, context) -> resolver.resolveAuthenticationPrincipal(parameter);
+			}
+			else {
+				binders[i] = (resolver, context) -> resolver.resolveRequestParam(context.request, null, parameter);
+			}
+		}
+		return binders;
+	}
+
+	private static ParameterBinder forRemoteParameter(ParameterInfo parameter) {
+		if (parameter.isSupportedParameter()) {
+			return forSupportedParameter(parameter);
+		}
+		if (ExtDirectStoreReadRequest.class.isAssignableFrom(parameter.getType())) {
+			return (resolver, context) -> context.extDirectStoreReadRequest;
+		}
+
+		ParameterBinder binder;
+		if (parameter.hasRequestParamAnnotation()) {
+			binder = (resolver, context) -> resolver.resolveRequestParam(null, context.remainingParameters, parameter);
+		}
+		else if (parameter.hasMetadataParamAnnotation()) {
+			binder = (resolver, context) -> resolver.resolveRequestParam(null, context.directRequest.getMetadata(),
+					parameter);
+		}
+		else if (parameter.hasRequestHeaderAnnotation()) {
+			binder = (resolver, context) -> resolver.resolveRequestHeader(context.request, parameter);
+		}
+		else if (parameter.hasCookieValueAnnotation()) {
+			binder = (resolver, context) -> resolver.resolveCookieValue(context.request, parameter);
+		}
+		else if (parameter.hasAuthenticationPrincipalAnnotation()) {
+			binder = (resolver, context) -> resolver.resolveAuthenticationPrincipal(parameter);
+		}
+		else {
+			binder = (resolver, context) -> resolver.resolveClientParameter(context, parameter);
+		}
+
+		if (parameter.getCollectionType() != null) {
+			// records of a STORE_MODIFY call take precedence over all other sources
+			ParameterBinder delegate = binder;
+			return (resolver, context) -> context.directStoreModifyRecords != null ? context.directStoreModifyRecords
+					: delegate.bind(resolver, context);
+		}
+		return binder;
+	}
+
+	private static ParameterBinder forSupportedParameter(ParameterInfo parameter) {
+		SupportedParameters supportedParameter = SupportedParameters.forParameterType(parameter.getType());
+		if (supportedParameter == null) {
+			return (resolver, context) -> null;
+		}
+		return (resolver, context) -> supportedParameter.resolve(context.request, context.response, context.locale,
+				context.directRequest);
+	}
+
+	/**
+	 * Holds the state of one parameter resolution.
+	 */
+	final class Context {
+
+		final HttpServletRequest request;
+
+		final HttpServletResponse response;
+
+		final Locale locale;
+
+		final @Nullable ExtDirectRequest directRequest;
+
+		final boolean namedParameters;
+
+		@Nullable Map<String, Object> remainingParameters;
+
+		@Nullable ExtDirectStoreReadRequest extDirectStoreReadRequest;
+
+		@Nullable List<Object> directStoreModifyRecords;
+
+		int jsonParamIndex;
+
+		Context(HttpServletRequest request, HttpServletResponse response, Locale locale,
+				@Nullable ExtDirectRequest directRequest, boolean namedParameters) {
+			this.request = request;
+			this.response = response;
+			this.locale = locale;
+			this.directRequest = directRequest;
+			this.namedParameters = namedParameters;
+		}
+
+	}
+
+}
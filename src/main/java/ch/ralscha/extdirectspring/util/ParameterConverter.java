@@ -0,0 +1,90 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Converts a value from the JSON request into the type of a method parameter. The
+ * converter is selected once per parameter when the {@link ParameterInfo} is created.
+ * Numbers that already have the type of the parameter, or only need to be widened to
+ * a long, are handled directly. Everything else is delegated to the
+ * {@link org.springframework.core.convert.ConversionService} by
+ * {@link ParametersResolver#convertGeneric(Object, ParameterInfo)} so that custom
+ * converters always apply.
+ */
+@FunctionalInterface
+interface ParameterConverter {
+
+	ParameterConverter GENERIC = (value, parameter, resolver) -> resolver.convertGeneric(value, parameter);
+
+	@Nullable Object convert(Object value, ParameterInfo parameter, ParametersResolver resolver);
+
+	/**
+	 * Returns the converter for a parameter with the given type.
+	 * @param typeDescriptor the type of the method parameter
+	 * @return the converter, never null
+	 */
+	static ParameterConverter forType(TypeDescriptor typeDescriptor) {
+		Class<?> type = typeDescriptor.getType();
+		Class<?> objectType = ClassUtils.resolvePrimitiveIfNecessary(type);
+
+		if (objectType == Long.class) {
+			return (value, parameter, resolver) -> {
+				if (value instanceof Long) {
+					return value;
+				}
+				if (value instanceof Integer intValue) {
+					return Long.valueOf(intValue.longValue());
+				}
+				return resolver.convertGeneric(value, parameter);
+			};
+		}
+
+		if (type.isPrimitive()) {
+			return (value, parameter, resolver) -> value.getClass() == objectType ? value
+					: resolver.convertGeneric(value, parameter);
+		}
+
+		if (typeDescriptor.isCollection() || typeDescriptor.isArray()) {
+			TypeDescriptor elementTypeDescriptor = typeDescriptor.getElementTypeDescriptor();
+			if (elementTypeDescriptor != null && isBean(elementTypeDescriptor.getType())) {
+				// a list of JSON objects is converted into beans with Jackson unless the
+				// conversion service has its own converter for the element type
+				return (value, parameter, resolver) -> {
+					if (value instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> element
+							&& !resolver.canConvert(element, elementTypeDescriptor)) {
+						return resolver.convertWithJackson(value, parameter);
+					}
+					return resolver.convertGeneric(value, parameter);
+				};
+			}
+		}
+
+		return GENERIC;
+	}
+
+	private static boolean isBean(Class<?> type) {
+		return type != Object.class && !Map.class.isAssignableFrom(type) && !BeanUtils.isSimpleValueType(type);
+	}
+
+}
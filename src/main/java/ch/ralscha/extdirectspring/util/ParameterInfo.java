@@ -17,6 +17,7 @@ package ch.ralscha.extdirectspring.util;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Collection;
 
 import org.jspecify.annotations.Nullable;
 import org.springframework.core.DefaultParameterNameDiscoverer;
@@ -30,6 +31,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ValueConstants;
 
 import ch.ralscha.extdirectspring.annotation.MetadataParam;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.type.TypeFactory;
 
 /**
  * Object holds information about a parameter. i.e. the name, type and the attributes of a
@@ -61,6 +64,10 @@ public final class ParameterInfo {
 
 	private @Nullable String defaultValue;
 
+	private final ParameterConverter converter;
+
+	private volatile @Nullable JavaType javaType;
+
 	public ParameterInfo(Class<?> clazz, Method method, int paramIndex) {
 
 		MethodParameter methodParam = new MethodParameter(method, paramIndex);
@@ -73,6 +80,7 @@ public final class ParameterInfo {
 		this.javaUtilOptional = "java.util.Optional".equals(paramType.getName());
 
 		this.supportedParameter = SupportedParameters.isSupported(this.typeDescriptor.getObjectType());
+		this.converter = ParameterConverter.forType(this.typeDescriptor);
 
 		Annotation[] paramAnnotations = methodParam.getParameterAnnotations();
 
@@ -204,4 +212,38 @@ public final class ParameterInfo {
 		return this.javaUtilOptional;
 	}
 
+	ParameterConverter getConverter() {
+		return this.converter;
+	}
+
+	/**
+	 * Returns the Jackson type of a collection or array parameter. The type is created on
+	 * the first call and then cached.
+	 * @param typeFactory the type factory of the object mapper
+	 * @return the Jackson type, null if the parameter is not a collection or array with a
+	 * known element type
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Nullable JavaType getJavaType(TypeFactory typeFactory) {
+		JavaType type = this.javaType;
+		if (type == null) {
+			TypeDescriptor elementTypeDescriptor = this.typeDescriptor.getElementTypeDescriptor();
+			if (elementTypeDescriptor == null) {
+				return null;
+			}
+			if (this.typeDescriptor.isCollection()) {
+				type = typeFactory.constructCollectionType((Class<? extends Collection>) getType(),
+						elementTypeDescriptor.getType());
+			}
+			else if (this.typeDescriptor.isArray()) {
+				type = typeFactory.constructArrayType(elementTypeDescriptor.getType());
+			}
+			else {
+				return null;
+			}
+			this.javaType = type;
+		}
+		return type;
+	}
+
 }
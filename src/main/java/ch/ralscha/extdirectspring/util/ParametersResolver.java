@@ -19,7 +19,6 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -53,7 +52,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.JavaType;
-import tools.jackson.databind.type.TypeFactory;
 
 /**
  * Resolver of ExtDirectRequest parameters.
@@ -89,31 +87,14 @@ public final class ParametersResolver {
 
 	public @Nullable Object[] prepareParameters(HttpServletRequest request, HttpServletResponse response, Locale locale,
 			MethodInfo methodInfo) {
-		List<ParameterInfo> methodParameters = methodInfo.getParameters();
+		ParameterBinder[] binders = methodInfo.getParameterBinders();
 		Object[] parameters = null;
-		if (!methodParameters.isEmpty()) {
-			parameters = new Object[methodParameters.size()];
-
-			for (int paramIndex = 0; paramIndex < methodParameters.size(); paramIndex++) {
-				ParameterInfo methodParameter = methodParameters.get(paramIndex);
-
-				if (methodParameter.isSupportedParameter()) {
-					parameters[paramIndex] = SupportedParameters.resolveParameter(methodParameter.getType(), request,
-							response, locale, null);
-				}
-				else if (methodParameter.hasRequestHeaderAnnotation()) {
-					parameters[paramIndex] = resolveRequestHeader(request, methodParameter);
-				}
-				else if (methodParameter.hasCookieValueAnnotation()) {
-					parameters[paramIndex] = resolveCookieValue(request, methodParameter);
-				}
-				else if (methodParameter.hasAuthenticationPrincipalAnnotation()) {
-					parameters[paramIndex] = resolveAuthenticationPrincipal(methodParameter);
-				}
-				else {
-					parameters[paramIndex] = resolveRequestParam(request, null, methodParameter);
-				}
+		if (binders.length > 0) {
+			ParameterBinder.Context context = new ParameterBinder.Context(request, response, locale, null, false);
+			parameters = new Object[binders.length];
 
+			for (int paramIndex = 0; paramIndex < binders.length; paramIndex++) {
+				parameters[paramIndex] = binders[paramIndex].bind(this, context);
 			}
 		}
 		return parameters;
@@ -213,76 +194,63 @@ public final class ParametersResolver {
 
 		}
 
-		List<ParameterInfo> methodParameters = methodInfo.getParameters();
+		ParameterBinder[] binders = methodInfo.getParameterBinders();
 		Object[] parameters = null;
 
-		if (!methodParameters.isEmpty()) {
-			parameters = new Object[methodParameters.size()];
+		if (binders.length > 0) {
+			ParameterBinder.Context context = new ParameterBinder.Context(request, response, locale, directRequest,
+					methodInfo.isType(ExtDirectMethodType.SIMPLE_NAMED));
+			context.remainingParameters = remainingParameters;
+			context.extDirectStoreReadRequest = extDirectStoreReadRequest;
+			context.directStoreModifyRecords = directStoreModifyRecords;
+			context.jsonParamIndex = jsonParamIndex;
+
+			parameters = new Object[binders.length];
+			for (int paramIndex = 0; paramIndex < binders.length; paramIndex++) {
+				parameters[paramIndex] = binders[paramIndex].bind(this, context);
+			}
+		}
 
-			for (int paramIndex = 0; paramIndex < methodParameters.size(); paramIndex++) {
-				ParameterInfo methodParameter = methodParameters.get(paramIndex);
+		return parameters;
+	}
 
-				if (methodParameter.isSupportedParameter()) {
-					parameters[paramIndex] = SupportedParameters.resolveParameter(methodParameter.getType(), request,
-							response, locale, directRequest);
-				}
-				else if (ExtDirectStoreReadRequest.class.isAssignableFrom(methodParameter.getType())) {
-					parameters[paramIndex] = extDirectStoreReadRequest;
-				}
-				else if (directStoreModifyRecords != null && methodParameter.getCollectionType() != null) {
-					parameters[paramIndex] = directStoreModifyRecords;
-				}
-				else if (methodParameter.hasRequestParamAnnotation()) {
-					parameters[paramIndex] = resolveRequestParam(null, remainingParameters, methodParameter);
-				}
-				else if (methodParameter.hasMetadataParamAnnotation()) {
-					parameters[paramIndex] = resolveRequestParam(null, directRequest.getMetadata(), methodParameter);
-				}
-				else if (methodParameter.hasRequestHeaderAnnotation()) {
-					parameters[paramIndex] = resolveRequestHeader(request, methodParameter);
-				}
-				else if (methodParameter.hasCookieValueAnnotation()) {
-					parameters[paramIndex] = resolveCookieValue(request, methodParameter);
-				}
-				else if (methodParameter.hasAuthenticationPrincipalAnnotation()) {
-					parameters[paramIndex] = resolveAuthenticationPrincipal(methodParameter);
-				}
-				else if (remainingParameters != null && remainingParameters.containsKey(methodParameter.getName())) {
-					Object jsonValue = remainingParameters.get(methodParameter.getName());
-					parameters[paramIndex] = convertValue(jsonValue, methodParameter);
-				}
-				else if (directRequest.getData() != null && directRequest.getData() instanceof List
-						&& ((List<Object>) directRequest.getData()).size() > jsonParamIndex) {
-					Object jsonValue = ((List<Object>) directRequest.getData()).get(jsonParamIndex);
-					parameters[paramIndex] = convertValue(jsonValue, methodParameter);
-					jsonParamIndex++;
-				}
-				else {
+	/**
+	 * Resolves a parameter without annotation from the named parameters or from the next
+	 * positional parameter of the request data.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable Object resolveClientParameter(ParameterBinder.Context context, ParameterInfo methodParameter) {
+		Map<String, Object> remainingParameters = context.remainingParameters;
+		ExtDirectRequest directRequest = context.directRequest;
 
-					if (methodInfo.isType(ExtDirectMethodType.SIMPLE_NAMED)) {
-						if (Map.class.isAssignableFrom(methodParameter.getType())) {
-							parameters[paramIndex] = remainingParameters;
-							continue;
-						}
-						if (methodParameter.isJavaUtilOptional()) {
-							parameters[paramIndex] = javaUtilOptionalEmpty;
-							continue;
-						}
-					}
+		if (remainingParameters != null && remainingParameters.containsKey(methodParameter.getName())) {
+			Object jsonValue = remainingParameters.get(methodParameter.getName());
+			return convertValue(jsonValue, methodParameter);
+		}
+		if (directRequest.getData() instanceof List
+				&& ((List<Object>) directRequest.getData()).size() > context.jsonParamIndex) {
+			Object jsonValue = ((List<Object>) directRequest.getData()).get(context.jsonParamIndex);
+			context.jsonParamIndex++;
+			return convertValue(jsonValue, methodParameter);
+		}
 
-					request.setAttribute("directRequest", directRequest);
-					request.setAttribute("extDirectStoreReadRequest", extDirectStoreReadRequest);
-					throw new IllegalArgumentException(
-							"Error, parameter mismatch. Please check your remoting method signature to ensure all supported parameters types are used.");
-				}
+		if (context.namedParameters) {
+			if (Map.class.isAssignableFrom(methodParameter.getType())) {
+				return remainingParameters;
+			}
+			if (methodParameter.isJavaUtilOptional()) {
+				return javaUtilOptionalEmpty;
 			}
 		}
 
-		return parameters;
+		context.request.setAttribute("directRequest", directRequest);
+		context.request.setAttribute("extDirectStoreReadRequest", context.extDirectStoreReadRequest);
+		throw new IllegalArgumentException(
+				"Error, parameter mismatch. Please check your remoting method signature to ensure all supported parameters types are used.");
 	}
 
-	private @Nullable Object resolveRequestParam(@Nullable HttpServletRequest request,
-			@Nullable Map<String, Object> valueContainer, final ParameterInfo parameterInfo) {
+	@Nullable Object resolveRequestParam(@Nullable HttpServletRequest request, @Nullable Map<String, Object> valueContainer,
+			final ParameterInfo parameterInfo) {
 
 		if (parameterInfo.getName() != null) {
 			Object value;
@@ -319,7 +287,7 @@ public final class ParametersResolver {
 		return null;
 	}
 
-	private @Nullable Object resolveRequestHeader(HttpServletRequest request, ParameterInfo parameterInfo) {
+	@Nullable Object resolveRequestHeader(HttpServletRequest request, ParameterInfo parameterInfo) {
 		String value = request.getHeader(parameterInfo.getName());
 
 		if (value == null) {
@@ -344,7 +312,7 @@ public final class ParametersResolver {
 		return null;
 	}
 
-	private @Nullable Object resolveCookieValue(HttpServletRequest request, ParameterInfo parameterInfo) {
+	@Nullable Object resolveCookieValue(HttpServletRequest request, ParameterInfo parameterInfo) {
 
 		Cookie cookieValue = WebUtils.getCookie(request, parameterInfo.getName());
 		String value = cookieValue != null ? UriUtils.decode(cookieValue.getValue(), StandardCharsets.UTF_8)
@@ -368,7 +336,7 @@ public final class ParametersResolver {
 		return null;
 	}
 
-	private @Nullable Object resolveAuthenticationPrincipal(ParameterInfo parameterInfo) {
+	@Nullable Object resolveAuthenticationPrincipal(ParameterInfo parameterInfo) {
 		Object principal = this.getPrincipalExpression.getValue();
 
 		if (principal != null && !parameterInfo.getType().isAssignableFrom(principal.getClass())) {
@@ -382,50 +350,10 @@ public final class ParametersResolver {
 
 	private @Nullable Object convertValue(@Nullable Object value, ParameterInfo methodParameter) {
 		if (value != null) {
-			Class<?> rawType = methodParameter.getType();
-			if (rawType.equals(value.getClass())) {
+			if (methodParameter.getType().equals(value.getClass())) {
 				return value;
 			}
-			else if (this.conversionService.canConvert(TypeDescriptor.forObject(value),
-					methodParameter.getTypeDescriptor())) {
-
-				try {
-					return this.conversionService.convert(value, TypeDescriptor.forObject(value),
-							methodParameter.getTypeDescriptor());
-				}
-				catch (ConversionFailedException e) {
-					// ignore this exception for collections and arrays.
-					// try to convert the value with jackson
-					TypeFactory typeFactory = this.jsonHandler.getMapper().getTypeFactory();
-					if (methodParameter.getTypeDescriptor().isCollection()) {
-						TypeDescriptor elementTypeDescriptor = methodParameter.getTypeDescriptor()
-							.getElementTypeDescriptor();
-						if (elementTypeDescriptor == null) {
-							throw e;
-						}
-						@SuppressWarnings("unchecked")
-						Class<? extends Collection> collectionType = (Class<? extends Collection>) rawType;
-						JavaType type = typeFactory.constructCollectionType(collectionType,
-								elementTypeDescriptor.getType());
-						return this.jsonHandler.convertValue(value, type);
-					}
-					else if (methodParameter.getTypeDescriptor().isArray()) {
-						TypeDescriptor elementTypeDescriptor = methodParameter.getTypeDescriptor()
-							.getElementTypeDescriptor();
-						if (elementTypeDescriptor == null) {
-							throw e;
-						}
-						JavaType type = typeFactory.constructArrayType(elementTypeDescriptor.getType());
-						return this.jsonHandler.convertValue(value, type);
-					}
-
-					throw e;
-				}
-			}
-			else {
-				return this.jsonHandler.convertValue(value, rawType);
-			}
-
+			return methodParameter.getConverter().convert(value, methodParameter, this);
 		}
 		if (methodParameter.isJavaUtilOptional()) {
 			return javaUtilOptionalEmpty;
@@ -434,6 +362,49 @@ public final class ParametersResolver {
 		return null;
 	}
 
+	/**
+	 * Converts a value with the {@link ConversionService}. Collections and arrays the
+	 * conversion service is not able to convert are converted with Jackson.
+	 */
+	@Nullable Object convertGeneric(Object value, ParameterInfo methodParameter) {
+		TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+		if (this.conversionService.canConvert(sourceType, methodParameter.getTypeDescriptor())) {
+			try {
+				return this.conversionService.convert(value, sourceType, methodParameter.getTypeDescriptor());
+			}
+			catch (ConversionFailedException e) {
+				// ignore this exception for collections and arrays.
+				// try to convert the value with jackson
+				if (methodParameter.getJavaType(this.jsonHandler.getMapper().getTypeFactory()) != null) {
+					return convertWithJackson(value, methodParameter);
+				}
+				throw e;
+			}
+		}
+		return this.jsonHandler.convertValue(value, methodParameter.getType());
+	}
+
+	/**
+	 * Returns true if the {@link ConversionService} has a converter for the value and the
+	 * target type.
+	 */
+	boolean canConvert(Object value, TypeDescriptor targetType) {
+		return this.conversionService.canConvert(TypeDescriptor.forObject(value), targetType);
+	}
+
+	/**
+	 * Converts a value into a collection or array parameter with Jackson. The
+	 * {@link JavaType} of the parameter is created once and cached in the
+	 * {@link ParameterInfo}.
+	 */
+	@Nullable Object convertWithJackson(Object value, ParameterInfo methodParameter) {
+		JavaType type = methodParameter.getJavaType(this.jsonHandler.getMapper().getTypeFactory());
+		if (type == null) {
+			return this.jsonHandler.convertValue(value, methodParameter.getType());
+		}
+		return this.jsonHandler.convertValue(value, type);
+	}
+
 	private Map<String, Object> fillReadRequestFromMap(ExtDirectStoreReadRequest to, Map<String, Object> from) {
 		Set<String> foundParameters = new HashSet<>();
 
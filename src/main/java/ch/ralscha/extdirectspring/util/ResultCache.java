@@ -0,0 +1,180 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.Nullable;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
+
+/**
+ * Bounded cache of serialized method results. Entries expire after the time to live and
+ * the oldest entries are removed when the number of entries or the total length of the
+ * cached JSON exceeds the limits. Reads never block.
+ * <p>
+ * With a maximum staleness an expired entry is still returned for that long. The first
+ * lookup of a stale entry is told to refresh it, all other lookups return the stale entry
+ * until the refresh stores a new result or is cancelled.
+ *
+ * @see ExtDirectCacheable
+ */
+public final class ResultCache {
+
+	private final long timeToLive;
+
+	private final long maxStaleness;
+
+	private final int maxEntries;
+
+	private final long maxSize;
+
+	private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<Object> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong size = new AtomicLong();
+
+	private final AtomicLong staleHits = new AtomicLong();
+
+	/**
+	 * Creates a new cache.
+	 * @param timeToLive the time to live of an entry in nanoseconds
+	 * @param maxStaleness how long an expired entry is still returned in nanoseconds, 0
+	 * to never return expired entries
+	 * @param maxEntries the maximum number of entries
+	 * @param maxSize the maximum total length of the cached JSON, 0 for no limit
+	 */
+	public ResultCache(long timeToLive, long maxStaleness, int maxEntries, long maxSize) {
+		this.timeToLive = timeToLive;
+		this.maxStaleness = Math.max(0, maxStaleness);
+		this.maxEntries = Math.max(1, maxEntries);
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Creates the cache for a method annotated with {@link ExtDirectCacheable}.
+	 * @param cacheable the annotation of the method
+	 * @return the new cache
+	 */
+	public static ResultCache of(ExtDirectCacheable cacheable) {
+		return new ResultCache(cacheable.timeUnit().toNanos(cacheable.timeToLive()),
+				cacheable.timeUnit().toNanos(cacheable.maxStaleness()), cacheable.maxEntries(), cacheable.maxSize());
+	}
+
+	/**
+	 * Returns the cached JSON.
+	 * @param key the key of the entry
+	 * @return the cached result, null if there is no entry or the entry is expired and
+	 * older than the maximum staleness
+	 */
+	public @Nullable CachedResult lookup(Object key) {
+		Entry entry = this.entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+
+		long expired = System.nanoTime() - entry.expiresAt;
+		if (expired < 0) {
+			return new CachedResult(entry.json, false, false);
+		}
+		if (expired < this.maxStaleness) {
+			this.staleHits.incrementAndGet();
+			return new CachedResult(entry.json, true, entry.refreshing.compareAndSet(false, true));
+		}
+		// expired entries stay in the map until they are replaced or evicted
+		return null;
+	}
+
+	public void put(Object key, String json) {
+		Entry entry = new Entry(json, System.nanoTime() + this.timeToLive);
+		Entry previous = this.entries.put(key, entry);
+		if (previous != null) {
+			this.size.addAndGet(json.length() - previous.json.length());
+		}
+		else {
+			this.size.addAndGet(json.length());
+			this.insertionOrder.add(key);
+		}
+		evict();
+	}
+
+	/**
+	 * Allows the next lookup of a stale entry to refresh it again. Called when a refresh
+	 * could not be started or failed.
+	 * @param key the key of the entry
+	 */
+	public void cancelRefresh(Object key) {
+		Entry entry = this.entries.get(key);
+		if (entry != null) {
+			entry.refreshing.set(false);
+		}
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns how many lookups returned an expired entry.
+	 * @return number of stale hits since the cache was created
+	 */
+	public long getStaleHits() {
+		return this.staleHits.get();
+	}
+
+	private void evict() {
+		while (this.entries.size() > this.maxEntries || (this.maxSize > 0 && this.size.get() > this.maxSize)) {
+			Object key = this.insertionOrder.poll();
+			if (key == null) {
+				break;
+			}
+			Entry entry = this.entries.remove(key);
+			if (entry != null) {
+				this.size.addAndGet(-entry.json.length());
+			}
+		}
+	}
+
+	/**
+	 * A result returned by {@link ResultCache#lookup(Object)}.
+	 *
+	 * @param json the serialized result
+	 * @param stale true if the time to live of the entry is exceeded
+	 * @param refresh true if the caller is responsible for refreshing the stale entry
+	 */
+	public record CachedResult(String json, boolean stale, boolean refresh) {
+	}
+
+	private static final class Entry {
+
+		private final String json;
+
+		private final long expiresAt;
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		Entry(String json, long expiresAt) {
+			this.json = json;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+/**
+ * Coalesces concurrent calls of a method with the same key. The first call executes the
+ * method, calls that arrive while it is running wait for it and return the same result or
+ * throw the same exception. A waiting call gives up with a {@link TimeoutException} after
+ * the given time, the running call is not affected. A method that returns a
+ * {@link CompletionStage} shares the stage, the call stays in flight until the stage
+ * completes.
+ *
+ * @see ExtDirectMethod#singleFlight()
+ */
+public final class SingleFlight {
+
+	private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Executes the call or waits for the identical call that is already running.
+	 * @param key identifies identical calls
+	 * @param call the invocation of the method
+	 * @param timeout how long to wait for a running call in milliseconds
+	 * @return the result of the method
+	 * @throws Exception the exception thrown by the method
+	 * @throws TimeoutException if the running call does not finish within the timeout
+	 */
+	public Object execute(Object key, Callable<Object> call, long timeout) throws Exception {
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> running = this.inFlight.putIfAbsent(key, flight);
+		if (running != null) {
+			return await(running, timeout);
+		}
+
+		boolean remove = true;
+		try {
+			Object result = call.call();
+			if (result instanceof CompletionStage<?> completionStage) {
+				remove = false;
+				completionStage.whenComplete((value, throwable) -> this.inFlight.remove(key, flight));
+			}
+			flight.complete(result);
+			return result;
+		}
+		catch (Exception | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			if (remove) {
+				this.inFlight.remove(key, flight);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of calls that are currently executed.
+	 * @return number of keys in flight
+	 */
+	public int size() {
+		return this.inFlight.size();
+	}
+
+	private static Object await(CompletableFuture<Object> running, long timeout) throws Exception {
+		try {
+			return running.get(timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception exception) {
+				throw exception;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+
+}
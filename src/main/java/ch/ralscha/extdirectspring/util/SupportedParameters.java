@@ -68,27 +68,58 @@ enum SupportedParameters {
 	public static @Nullable Object resolveParameter(Class<?> parameterType, HttpServletRequest request,
 			HttpServletResponse response, Locale locale, @Nullable ExtDirectRequest extDirectRequest) {
 
+		SupportedParameters supportedParameter = forParameterType(parameterType);
+		if (supportedParameter != null) {
+			return supportedParameter.resolve(request, response, locale, extDirectRequest);
+		}
+		return null;
+
+	}
+
+	/**
+	 * Returns the supported parameter that provides the value for a parameter of the
+	 * given type.
+	 * @param parameterType the type of the method parameter
+	 * @return the matching supported parameter, null if the type is not supported
+	 */
+	static @Nullable SupportedParameters forParameterType(Class<?> parameterType) {
+
 		if (SERVLET_REQUEST.getSupportedClass().isAssignableFrom(parameterType)) {
-			return request;
+			return SERVLET_REQUEST;
 		}
 		if (SERVLET_RESPONSE.getSupportedClass().isAssignableFrom(parameterType)) {
-			return response;
+			return SERVLET_RESPONSE;
 		}
 		else if (SESSION.getSupportedClass().isAssignableFrom(parameterType)) {
-			return request.getSession();
+			return SESSION;
 		}
 		else if (PRINCIPAL.getSupportedClass().isAssignableFrom(parameterType)) {
-			return request.getUserPrincipal();
+			return PRINCIPAL;
 		}
 		else if (LOCALE.getSupportedClass().equals(parameterType)) {
-			return locale;
+			return LOCALE;
 		}
 		else if (EXT_DIRECT_REQUEST.getSupportedClass().equals(parameterType)) {
-			return extDirectRequest;
+			return EXT_DIRECT_REQUEST;
 		}
 
 		return null;
 
 	}
 
+	/**
+	 * Returns the value of this supported parameter.
+	 */
+	@Nullable Object resolve(HttpServletRequest request, HttpServletResponse response, Locale locale,
+			@Nullable ExtDirectRequest extDirectRequest) {
+		return switch (this) {
+			case SERVLET_REQUEST -> request;
+			case SERVLET_RESPONSE -> response;
+			case SESSION -> request.getSession();
+			case PRINCIPAL -> request.getUserPrincipal();
+			case LOCALE -> locale;
+			case EXT_DIRECT_REQUEST -> extDirectRequest;
+		};
+	}
+
 }
@@ -121,6 +121,39 @@ public class ApiControllerWithConfigurationTest {
 		this.configurationService.afterPropertiesSet();
 	}
 
+	@Test
+	public void testWebSocketUrl() throws Exception {
+		String api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+		assertThat(api).doesNotContain("webSocketUrl");
+
+		Configuration config = new Configuration();
+		config.setWebSocketPath("websocket");
+		ReflectionTestUtils.setField(this.configurationService, "configuration", config);
+		this.configurationService.afterPropertiesSet();
+		this.apiCache.clear();
+		try {
+			api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+			assertThat(api).contains("\"webSocketUrl\":\"/websocket\"");
+
+			config.setFullRouterUrl(true);
+			this.apiCache.clear();
+			api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+			assertThat(api).contains("\"webSocketUrl\":\"ws://localhost/websocket\"");
+
+			this.apiCache.clear();
+			api = this.mockMvc.perform(get("https://localhost:8443/api.js"))
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+			assertThat(api).contains("\"webSocketUrl\":\"wss://localhost:8443/websocket\"");
+		}
+		finally {
+			ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+			this.configurationService.afterPropertiesSet();
+			this.apiCache.clear();
+		}
+	}
+
 	@Test
 	public void testNoActionNamespaceDebugDefaultConfig() throws Exception {
 		ApiRequestParams params = ApiRequestParams.builder()
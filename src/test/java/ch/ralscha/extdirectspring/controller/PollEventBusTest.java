@@ -0,0 +1,151 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.util.JsonHandler;
+
+public class PollEventBusTest {
+
+	private static ExtDirectPollResponse event(String name, Object data) {
+		ExtDirectPollResponse pollResponse = new ExtDirectPollResponse();
+		pollResponse.setName(name);
+		pollResponse.setData(data);
+		return pollResponse;
+	}
+
+	private static Consumer<ExtDirectPollResponse> collect(List<ExtDirectPollResponse> received, CountDownLatch latch) {
+		return pollResponse -> {
+			received.add(pollResponse);
+			latch.countDown();
+		};
+	}
+
+	@Test
+	public void testInMemory() {
+		InMemoryPollEventBus bus = new InMemoryPollEventBus();
+		List<ExtDirectPollResponse> received = new CopyOnWriteArrayList<>();
+		bus.subscribe(received::add);
+		bus.subscribe(pollResponse -> {
+			throw new IllegalStateException("failed");
+		});
+
+		ExtDirectPollResponse pollResponse = event("message", "hello");
+		bus.publish(pollResponse);
+
+		assertThat(received).containsExactly(pollResponse);
+	}
+
+	@Test
+	public void testTcp() throws Exception {
+		JsonHandler jsonHandler = new JsonHandler();
+		InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+		TcpPollEventBus node1 = new TcpPollEventBus(jsonHandler, loopback, List.of());
+		TcpPollEventBus node2 = new TcpPollEventBus(jsonHandler, loopback, List.of());
+		try {
+			node1.afterPropertiesSet();
+			node2.afterPropertiesSet();
+			node1.addPeer(new InetSocketAddress(InetAddress.getLoopbackAddress(), node2.getLocalPort()));
+			node2.addPeer(new InetSocketAddress(InetAddress.getLoopbackAddress(), node1.getLocalPort()));
+			node1.setMaxBatchSize(7);
+
+			List<ExtDirectPollResponse> received1 = new CopyOnWriteArrayList<>();
+			List<ExtDirectPollResponse> received2 = new CopyOnWriteArrayList<>();
+			CountDownLatch latch1 = new CountDownLatch(51);
+			CountDownLatch latch2 = new CountDownLatch(51);
+			node1.subscribe(collect(received1, latch1));
+			node2.subscribe(collect(received2, latch2));
+
+			for (int i = 0; i < 50; i++) {
+				node1.publish(event("counter", i));
+			}
+			node2.publish(event("message", Map.of("text", "from node2")));
+
+			assertThat(latch1.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(latch2.await(10, TimeUnit.SECONDS)).isTrue();
+
+			List<Object> counters = received2.stream()
+				.filter(pollResponse -> pollResponse.getName().equals("counter"))
+				.map(ExtDirectPollResponse::getData)
+				.toList();
+			assertThat(counters).containsExactlyElementsOf(IntStream.range(0, 50).boxed().toList());
+			ExtDirectPollResponse message = received1.stream()
+				.filter(pollResponse -> pollResponse.getName().equals("message"))
+				.findFirst()
+				.orElseThrow();
+			assertThat(message.getData()).isEqualTo(Map.of("text", "from node2"));
+			assertThat(message.getType()).isEqualTo("event");
+			assertThat(node1.getDroppedEvents()).isZero();
+		}
+		finally {
+			node1.destroy();
+			node2.destroy();
+		}
+	}
+
+	@Test
+	public void testTcpRejectsOversizedFrame() throws Exception {
+		JsonHandler jsonHandler = new JsonHandler();
+		TcpPollEventBus node = new TcpPollEventBus(jsonHandler,
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), List.of());
+		try {
+			node.afterPropertiesSet();
+			List<ExtDirectPollResponse> received = new CopyOnWriteArrayList<>();
+			node.subscribe(received::add);
+
+			// a few KB that inflate to more than the 16 MB limit
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try (DeflaterOutputStream out = new DeflaterOutputStream(bos)) {
+				out.write(new byte[17 * 1024 * 1024]);
+			}
+			byte[] frame = bos.toByteArray();
+
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), node.getLocalPort())) {
+				socket.setSoTimeout(10_000);
+				DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+				out.writeInt(frame.length);
+				out.write(frame);
+				out.flush();
+				// the node closes the connection
+				assertThat(socket.getInputStream().read()).isEqualTo(-1);
+			}
+			assertThat(received).isEmpty();
+		}
+		finally {
+			node.destroy();
+		}
+	}
+
+}
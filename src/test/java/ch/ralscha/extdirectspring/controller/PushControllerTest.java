@@ -0,0 +1,151 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.util.ApiCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class PushControllerTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
+	@Autowired
+	private ApiCache apiCache;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+		this.apiCache.clear();
+	}
+
+	private void enablePush() {
+		enablePush(new Configuration());
+	}
+
+	private void enablePush(Configuration configuration) {
+		configuration.setPushUrlVar("PUSH_URL");
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		this.apiCache.clear();
+	}
+
+	@Test
+	public void pushDisabled() throws Exception {
+		this.mockMvc.perform(get("/push")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void pushPublishedEvents() throws Exception {
+		ExecutorService pushExecutor = Executors.newSingleThreadExecutor();
+		Configuration configuration = new Configuration();
+		configuration.setPushExecutorService(pushExecutor);
+		enablePush(configuration);
+		int subscribers = this.pollEventPublisher.getSubscriberCount();
+
+		MvcResult result = this.mockMvc.perform(get("/push")).andExpect(request().asyncStarted()).andReturn();
+		assertThat(this.pollEventPublisher.getSubscriberCount()).isEqualTo(subscribers + 1);
+
+		this.pollEventPublisher.publish("message", "hello");
+		this.pollEventPublisher.publish("counter", 2);
+		pushExecutor.submit(() -> null).get(5, TimeUnit.SECONDS);
+
+		String content = result.getResponse().getContentAsString();
+		assertThat(content)
+			.contains("event:message\ndata:{\"data\":\"hello\",\"name\":\"message\",\"type\":\"event\"}");
+		assertThat(content).contains("event:counter\ndata:{\"data\":2,\"name\":\"counter\",\"type\":\"event\"}");
+		assertThat(result.getResponse().getContentType()).startsWith("text/event-stream");
+	}
+
+	@Test
+	public void eventsAreDroppedWhenQueueOfClientIsFull() throws Exception {
+		ExecutorService pushExecutor = Executors.newSingleThreadExecutor();
+		Configuration configuration = new Configuration();
+		configuration.setPushExecutorService(pushExecutor);
+		configuration.setPushQueueCapacity(2);
+		enablePush(configuration);
+
+		MvcResult result = this.mockMvc.perform(get("/push")).andExpect(request().asyncStarted()).andReturn();
+
+		// a busy executor stands in for a slow client, publish does not wait for it
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Boolean> busy = pushExecutor.submit(() -> release.await(5, TimeUnit.SECONDS));
+		this.pollEventPublisher.publish("first", 1);
+		this.pollEventPublisher.publish("second", 2);
+		this.pollEventPublisher.publish("third", 3);
+		assertThat(result.getResponse().getContentAsString()).isEmpty();
+
+		release.countDown();
+		assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+		pushExecutor.submit(() -> null).get(5, TimeUnit.SECONDS);
+
+		String content = result.getResponse().getContentAsString();
+		assertThat(content).contains("event:first", "event:second").doesNotContain("event:third");
+	}
+
+	@Test
+	public void apiContainsPushUrl() throws Exception {
+		String api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+		assertThat(api).doesNotContain("PUSH_URL");
+
+		enablePush();
+		api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+		assertThat(api).endsWith("Ext.app.PUSH_URL = \"/push\";");
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerAdaptiveTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		// forget the execution times of earlier tests
+		this.methodInfoCache.clear();
+		this.wac.publishEvent(new ContextRefreshedEvent(this.wac));
+
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy.ADAPTIVE);
+		configuration.setAdaptiveExecutionThreshold(50_000);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@Test
+	public void cheapBatchRunsOnRequestThread() throws Exception {
+		String requestThread = Thread.currentThread().getName();
+
+		// the method was never called, both calls are executed in the thread pool
+		assertThat(callThreadName()).doesNotContain(requestThread);
+
+		// the method is cheap now, the whole batch runs on the request thread
+		assertThat(callThreadName()).containsExactly(requestThread, requestThread);
+	}
+
+	private List<Object> callThreadName() throws Exception {
+		BeanMethod call1 = new BeanMethod("remoteProviderBatch", "threadName");
+		call1.setTid(1);
+		BeanMethod call2 = new BeanMethod("remoteProviderBatch", "threadName");
+		call2.setTid(2);
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest(List.of(call1, call2)));
+		return ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray())
+			.stream()
+			.map(ExtDirectResponse::getResult)
+			.toList();
+	}
+
+}
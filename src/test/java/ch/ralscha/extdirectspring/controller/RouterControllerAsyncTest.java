@@ -0,0 +1,271 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderAsync;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerAsyncTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RemoteProviderAsync remoteProviderAsync;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderAsync.reset();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void completePendingCalls() throws Exception {
+		this.remoteProviderAsync.complete("done");
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@Test
+	public void responseIsWrittenWhenAsynchronousMethodsComplete() throws Exception {
+		BeanMethod async = new BeanMethod("remoteProviderAsync", "asyncValue");
+		async.setTid(1);
+		BeanMethod sync = new BeanMethod("remoteProviderAsync", "syncValue", new Object[] { 3 });
+		sync.setTid(2);
+
+		MvcResult result = this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.content(ControllerUtil.createEdsRequest(List.of(async, sync))))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+
+		this.remoteProviderAsync.complete("done");
+
+		assertThat(result.getRequest().isAsyncStarted()).isFalse();
+		assertThat(ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()))
+			.extracting(ExtDirectResponse::getResult)
+			.containsExactly("done", 3);
+	}
+
+	@Test
+	public void routerWaitsForAsynchronousMethodsWithoutAsyncSupport() throws Exception {
+		BeanMethod async = new BeanMethod("remoteProviderAsync", "asyncValue");
+		async.setTid(1);
+		BeanMethod failure = new BeanMethod("remoteProviderAsync", "asyncFailure");
+		failure.setTid(2);
+
+		CompletableFuture<Void> completion = CompletableFuture.runAsync(() -> {
+			try {
+				if (this.remoteProviderAsync.awaitStarted()) {
+					this.remoteProviderAsync.complete("late");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		MvcResult result = this.mockMvc.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+			.content(ControllerUtil.createEdsRequest(List.of(async, failure)))
+			.with(request -> {
+				request.setAsyncSupported(false);
+				return request;
+			})).andReturn();
+		completion.join();
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).extracting(ExtDirectResponse::getType).containsExactly("rpc", "exception");
+		assertThat(responses.get(0).getResult()).isEqualTo("late");
+	}
+
+	@Test
+	public void pollResponseIsWrittenWhenAsynchronousMethodCompletes() throws Exception {
+		MvcResult result = this.mockMvc.perform(post("/poll/remoteProviderAsync/asyncPoll/message"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		this.remoteProviderAsync.complete("polled");
+
+		assertThat(result.getRequest().isAsyncStarted()).isFalse();
+		ExtDirectPollResponse pollResponse = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(pollResponse.getName()).isEqualTo("message");
+		assertThat(pollResponse.getData()).isEqualTo("polled");
+	}
+
+	@Test
+	public void pendingCallsAreAnsweredWhenTimeoutExpires() throws Exception {
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsTimeout(50);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+
+		BeanMethod async = new BeanMethod("remoteProviderAsync", "asyncValue");
+		async.setTid(1);
+		BeanMethod sync = new BeanMethod("remoteProviderAsync", "syncValue", new Object[] { 3 });
+		sync.setTid(2);
+
+		MvcResult result = this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.content(ControllerUtil.createEdsRequest(List.of(async, sync))))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isPositive();
+		awaitAsyncCompletion(result);
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).extracting(ExtDirectResponse::getType).containsExactly("exception", "rpc");
+		assertThat(responses.get(1).getResult()).isEqualTo(3);
+	}
+
+	@Test
+	public void waitsWithoutAsyncSupportAreBounded() throws Exception {
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsTimeout(50);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+
+		BeanMethod async = new BeanMethod("remoteProviderAsync", "asyncValue");
+		async.setTid(1);
+		MvcResult result = this.mockMvc.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+			.content(ControllerUtil.createEdsRequest(List.of(async)))
+			.with(request -> {
+				request.setAsyncSupported(false);
+				return request;
+			})).andReturn();
+		assertThat(ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()))
+			.extracting(ExtDirectResponse::getType)
+			.containsExactly("exception");
+
+		result = this.mockMvc.perform(post("/poll/remoteProviderAsync/asyncPoll/message").with(request -> {
+			request.setAsyncSupported(false);
+			return request;
+		})).andReturn();
+		ExtDirectPollResponse pollResponse = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(pollResponse.getType()).isEqualTo("exception");
+	}
+
+	@Test
+	public void asynchronousMethodsDoNotBlockPoolThreads() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(1);
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy.CONCURRENT);
+		configuration.setBatchedMethodsExecutorService(pool);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+
+		BeanMethod async = new BeanMethod("remoteProviderAsync", "asyncValue");
+		async.setTid(1);
+		BeanMethod sync = new BeanMethod("remoteProviderAsync", "syncValue", new Object[] { 3 });
+		sync.setTid(2);
+
+		// the single pool thread must be free while asyncValue is pending
+		CompletableFuture<Boolean> poolAvailable = CompletableFuture.supplyAsync(() -> {
+			try {
+				return this.remoteProviderAsync.awaitStarted() && pool.submit(() -> true).get(5, TimeUnit.SECONDS);
+			}
+			catch (Exception e) {
+				return false;
+			}
+			finally {
+				this.remoteProviderAsync.complete("late");
+			}
+		});
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest(List.of(async, sync)));
+
+		assertThat(poolAvailable.get(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()))
+			.extracting(ExtDirectResponse::getResult)
+			.containsExactly("late", 3);
+	}
+
+	private static void awaitAsyncCompletion(MvcResult result) throws InterruptedException {
+		CountDownLatch completed = new CountDownLatch(1);
+		result.getRequest().getAsyncContext().addListener(new AsyncListener() {
+
+			@Override
+			public void onComplete(AsyncEvent event) {
+				completed.countDown();
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+				// not used
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+				// not used
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+				// not used
+			}
+
+		});
+		if (result.getRequest().isAsyncStarted()) {
+			assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+}
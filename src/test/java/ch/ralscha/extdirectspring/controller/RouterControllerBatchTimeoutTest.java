@@ -0,0 +1,96 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderBatch;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerBatchTimeoutTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RemoteProviderBatch remoteProviderBatch;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderBatch.reset(1);
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy.CONCURRENT);
+		configuration.setBatchedMethodsTimeout(200);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.remoteProviderBatch.countDown();
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@Test
+	public void slowCallsAreAnsweredWithException() throws Exception {
+		BeanMethod fast = new BeanMethod("remoteProviderSimple", "method6", new Object[] { 1, 2 });
+		fast.setTid(1);
+		BeanMethod slow1 = new BeanMethod("remoteProviderBatch", "block");
+		slow1.setTid(2);
+		BeanMethod slow2 = new BeanMethod("remoteProviderBatch", "block");
+		slow2.setTid(3);
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest(List.of(fast, slow1, slow2)));
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2, 3);
+		assertThat(responses).extracting(ExtDirectResponse::getType).containsExactly("rpc", "exception", "exception");
+		assertThat(responses.get(0).getResult()).isEqualTo(3);
+		assertThat(responses.get(1).getMessage()).isEqualTo("Server Error");
+		assertThat(this.remoteProviderBatch.awaitInterrupted()).isTrue();
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.provider.PollProviderChanges;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerBroadcastPollTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	@Autowired
+	private PollProviderChanges pollProviderChanges;
+
+	@Autowired
+	private PollEventNotifier pollEventNotifier;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.pollProviderChanges.reset();
+		// fresh method infos with empty broadcast caches
+		this.methodInfoCache.clear();
+		this.wac.publishEvent(new ContextRefreshedEvent(this.wac));
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void broadcastPollCallsMethodOncePerInterval() throws Exception {
+		List<byte[]> responses = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = this.mockMvc
+				.perform(post("/poll/pollProviderChanges/systemStatus/status"))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse();
+			assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+			responses.add(response.getContentAsByteArray());
+		}
+
+		assertThat(this.pollProviderChanges.getStatusCalls()).isEqualTo(1);
+		assertThat(responses.get(1)).isEqualTo(responses.get(0));
+		assertThat(responses.get(2)).isEqualTo(responses.get(0));
+		ExtDirectPollResponse pollResponse = ControllerUtil.readDirectPollResponse(responses.get(0));
+		assertThat(pollResponse.getName()).isEqualTo("status");
+		assertThat(pollResponse.getData()).isEqualTo("status 1");
+	}
+
+	@Test
+	public void notifiedEventIsComputedAgain() throws Exception {
+		assertThat(pollStatus().getData()).isEqualTo("status 1");
+		assertThat(pollStatus().getData()).isEqualTo("status 1");
+
+		this.pollEventNotifier.notifyChanged("status");
+
+		assertThat(pollStatus().getData()).isEqualTo("status 2");
+		assertThat(pollStatus().getData()).isEqualTo("status 2");
+		assertThat(this.pollProviderChanges.getStatusCalls()).isEqualTo(2);
+	}
+
+	private ExtDirectPollResponse pollStatus() throws Exception {
+		return ControllerUtil
+			.readDirectPollResponse(this.mockMvc.perform(post("/poll/pollProviderChanges/systemStatus/status"))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsByteArray());
+	}
+
+}
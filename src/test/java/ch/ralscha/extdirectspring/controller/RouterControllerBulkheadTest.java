@@ -0,0 +1,100 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderBulkhead;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerBulkheadTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	@Autowired
+	private RemoteProviderBulkhead remoteProviderBulkhead;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderBulkhead.reset();
+		this.methodInfoCache.clear();
+		this.wac.publishEvent(new ContextRefreshedEvent(this.wac));
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void completePendingCalls() {
+		this.remoteProviderBulkhead.complete("done");
+	}
+
+	@Test
+	public void callBeyondTheLimitIsRejected() throws Exception {
+		// holds the only slot until the returned future completes
+		MvcResult running = this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.content(ControllerUtil.createEdsRequest("remoteProviderBulkhead", "limited", 1, null)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		MvcResult rejected = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest("remoteProviderBulkhead", "limited", 2, null));
+		ExtDirectResponse response = ControllerUtil.readDirectResponses(rejected.getResponse().getContentAsByteArray())
+			.get(0);
+		assertThat(response.getType()).isEqualTo("exception");
+		assertThat(response.getMessage()).isEqualTo("Server Error");
+
+		this.remoteProviderBulkhead.complete("done");
+		assertThat(running.getRequest().isAsyncStarted()).isFalse();
+		response = ControllerUtil.readDirectResponses(running.getResponse().getContentAsByteArray()).get(0);
+		assertThat(response.getType()).isEqualTo("rpc");
+		assertThat(response.getResult()).isEqualTo("done");
+
+		// the slot is free again
+		this.remoteProviderBulkhead.reset();
+		this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.content(ControllerUtil.createEdsRequest("remoteProviderBulkhead", "limited", 3, null)))
+			.andExpect(request().asyncStarted());
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.provider.RemoteProviderCacheable;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerCacheableTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	@Autowired
+	private RemoteProviderCacheable remoteProviderCacheable;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderCacheable.reset();
+		// fresh method infos with empty result caches
+		this.methodInfoCache.clear();
+		this.wac.publishEvent(new ContextRefreshedEvent(this.wac));
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@Test
+	public void cacheableMethodIsAnsweredFromCache() throws Exception {
+		List<Object> results = new ArrayList<>();
+		for (int value : new int[] { 1, 1, 2, 1 }) {
+			results.add(call("cachedLookup", value));
+		}
+
+		assertThat(results).containsExactly(List.of("1"), List.of("1"), List.of("2"), List.of("1"));
+		assertThat(this.remoteProviderCacheable.getCachedLookups()).isEqualTo(2);
+	}
+
+	@Test
+	public void staleResultIsReturnedAndRefreshedInBackground() throws Exception {
+		ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+		Configuration configuration = new Configuration();
+		configuration.setCacheRefreshExecutorService(refreshExecutor);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+
+		assertThat(call("staleLookup", null)).isEqualTo(1);
+
+		// expired, the stale result is returned and refreshed in the background
+		assertThat(call("staleLookup", null)).isEqualTo(1);
+		refreshExecutor.submit(() -> null).get(5, TimeUnit.SECONDS);
+
+		assertThat(call("staleLookup", null)).isEqualTo(2);
+		refreshExecutor.shutdown();
+		assertThat(refreshExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(this.remoteProviderCacheable.getStaleLookups()).isEqualTo(3);
+		assertThat(this.methodInfoCache.get("remoteProviderCacheable", "staleLookup").getResultCache().getStaleHits())
+			.isEqualTo(2);
+	}
+
+	@Test
+	public void methodWithServerParametersIsNotCached() throws Exception {
+		assertThat(this.methodInfoCache.get("remoteProviderCacheable", "userLookup").getResultCache()).isNull();
+
+		assertThat(callAs("alice", 1)).isEqualTo("alice:1");
+		assertThat(callAs("bob", 1)).isEqualTo("bob:1");
+		assertThat(this.remoteProviderCacheable.getCachedLookups()).isEqualTo(2);
+	}
+
+	private Object callAs(String user, int value) throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.principal(() -> user)
+				.content(ControllerUtil.createEdsRequest("remoteProviderCacheable", "userLookup", 1,
+						new Object[] { value })))
+			.andExpect(status().isOk())
+			.andReturn();
+		return ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()).get(0).getResult();
+	}
+
+	private Object call(String method, Object value) throws Exception {
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc, ControllerUtil
+			.createEdsRequest("remoteProviderCacheable", method, 1, value != null ? new Object[] { value } : null));
+		return ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()).get(0).getResult();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderDeduplicate;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerDeduplicateTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RemoteProviderDeduplicate remoteProviderDeduplicate;
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@ParameterizedTest
+	@EnumSource(BatchedMethodsExecutionPolicy.class)
+	public void identicalCallsOfBatchAreExecutedOnce(BatchedMethodsExecutionPolicy policy) throws Exception {
+		this.remoteProviderDeduplicate.reset();
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(policy);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+
+		List<BeanMethod> beanMethods = new ArrayList<>();
+		int tid = 1;
+		for (int value : new int[] { 1, 2, 1, 1 }) {
+			BeanMethod beanMethod = new BeanMethod("remoteProviderDeduplicate", "lookup", new Object[] { value });
+			beanMethod.setTid(tid++);
+			beanMethods.add(beanMethod);
+		}
+
+		MvcResult result = ControllerUtil.performRouterRequest(mockMvc, ControllerUtil.createEdsRequest(beanMethods));
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2, 3, 4);
+		assertThat(responses).extracting(ExtDirectResponse::getResult).containsExactly(10, 20, 10, 10);
+		assertThat(this.remoteProviderDeduplicate.getLookups()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderBatch;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerFlushTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RemoteProviderBatch remoteProviderBatch;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderBatch.reset(1);
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy.CONCURRENT);
+		configuration.setFlushBatchedResponses(true);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+
+		// awaitRelease only returns true if the first response reached the client before
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac)
+			.addFilter((request, response, chain) -> chain.doFilter(request,
+					new FlushListeningResponse((MockHttpServletResponse) response, () -> {
+						String content = new String(((MockHttpServletResponse) response).getContentAsByteArray(),
+								StandardCharsets.UTF_8);
+						if (content.contains("\"tid\":1")) {
+							this.remoteProviderBatch.countDown();
+						}
+					})))
+			.build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.remoteProviderBatch.countDown();
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@Test
+	public void responsesAreFlushedAsSoonAsTheyAreReady() throws Exception {
+		BeanMethod fast = new BeanMethod("remoteProviderSimple", "method6", new Object[] { 1, 2 });
+		fast.setTid(1);
+		BeanMethod slow = new BeanMethod("remoteProviderBatch", "awaitRelease");
+		slow.setTid(2);
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest(List.of(fast, slow)));
+
+		assertThat(result.getResponse().getHeader("Content-Length")).isNull();
+		assertThat(ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()))
+			.extracting(ExtDirectResponse::getResult)
+			.containsExactly(3, true);
+	}
+
+	private static final class FlushListeningResponse extends HttpServletResponseWrapper {
+
+		private final Runnable flushListener;
+
+		FlushListeningResponse(HttpServletResponse response, Runnable flushListener) {
+			super(response);
+			this.flushListener = flushListener;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			ServletOutputStream outputStream = super.getOutputStream();
+			return new ServletOutputStream() {
+
+				@Override
+				public void write(int b) throws IOException {
+					outputStream.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					outputStream.write(b, off, len);
+				}
+
+				@Override
+				public void flush() throws IOException {
+					outputStream.flush();
+					FlushListeningResponse.this.flushListener.run();
+				}
+
+				@Override
+				public boolean isReady() {
+					return outputStream.isReady();
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					outputStream.setWriteListener(writeListener);
+				}
+
+			};
+		}
+
+	}
+
+}
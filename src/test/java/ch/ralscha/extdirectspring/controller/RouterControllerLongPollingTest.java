@@ -0,0 +1,139 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.provider.PollProviderChanges;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerLongPollingTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private PollEventNotifier pollEventNotifier;
+
+	@Autowired
+	private PollProviderChanges pollProviderChanges;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.pollProviderChanges.reset();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resumeParkedPolls() {
+		this.pollEventNotifier.notifyChanged("changes");
+	}
+
+	@Test
+	public void pollIsAnsweredWhenEventIsNotified() throws Exception {
+		MvcResult result = startPoll();
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(30_000L);
+		assertThat(this.pollEventNotifier.getWaitingCount("changes")).isEqualTo(1);
+		assertThat(this.pollProviderChanges.getChanges()).isZero();
+
+		this.pollEventNotifier.notifyChanged("other");
+		assertThat(result.getRequest().isAsyncStarted()).isTrue();
+
+		this.pollEventNotifier.notifyChanged("changes");
+		assertThat(result.getRequest().isAsyncStarted()).isFalse();
+		assertThat(this.pollEventNotifier.getWaitingCount("changes")).isZero();
+		ExtDirectPollResponse pollResponse = ControllerUtil
+			.readDirectPollResponse(result.getResponse().getContentAsByteArray());
+		assertThat(pollResponse.getName()).isEqualTo("changes");
+		assertThat(pollResponse.getData()).isEqualTo(1);
+	}
+
+	@Test
+	public void pollIsAnsweredOnTimeout() throws Exception {
+		MvcResult result = startPoll();
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+
+		assertThat(result.getRequest().isAsyncStarted()).isFalse();
+		assertThat(this.pollEventNotifier.getWaitingCount("changes")).isZero();
+		assertThat(ControllerUtil.readDirectPollResponse(result.getResponse().getContentAsByteArray()).getData())
+			.isEqualTo(1);
+
+		this.pollEventNotifier.notifyChanged("changes");
+		assertThat(this.pollProviderChanges.getChanges()).isEqualTo(1);
+	}
+
+	@Test
+	public void pollIsCompletedOnError() throws Exception {
+		MvcResult result = startPoll();
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onError(new AsyncEvent(asyncContext, new IOException("connection reset")));
+		}
+
+		assertThat(result.getRequest().isAsyncStarted()).isFalse();
+		assertThat(this.pollEventNotifier.getWaitingCount("changes")).isZero();
+
+		this.pollEventNotifier.notifyChanged("changes");
+		assertThat(this.pollProviderChanges.getChanges()).isZero();
+	}
+
+	@Test
+	public void methodWithoutLongPollingIsAnsweredImmediately() throws Exception {
+		MvcResult result = this.mockMvc.perform(post("/poll/pollProviderChanges/changes/changes"))
+			.andExpect(request().asyncNotStarted())
+			.andReturn();
+
+		assertThat(this.pollEventNotifier.getWaitingCount("changes")).isZero();
+		assertThat(ControllerUtil.readDirectPollResponse(result.getResponse().getContentAsByteArray()).getData())
+			.isEqualTo(1);
+	}
+
+	private MvcResult startPoll() throws Exception {
+		return this.mockMvc.perform(post("/poll/pollProviderChanges/longPollChanges/changes"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectPollResponse;
+import ch.ralscha.extdirectspring.util.ApiCache;
+import tools.jackson.core.type.TypeReference;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContext.xml")
+public class RouterControllerMultiPollTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private ApiCache apiCache;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() throws Exception {
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() {
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+		this.apiCache.clear();
+	}
+
+	private void enableMultiPoll() {
+		Configuration configuration = new Configuration();
+		configuration.setMultiPollUrlVar("MULTI_POLL_URL");
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		this.apiCache.clear();
+	}
+
+	@Test
+	public void multiPollDisabled() throws Exception {
+		this.mockMvc.perform(post("/poll").param("events", "message1")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void multiPoll() throws Exception {
+		enableMultiPoll();
+
+		byte[] content = this.mockMvc
+			.perform(
+					post("/poll").param("events", "message3, message1,unknown").param("id", "2").locale(Locale.ENGLISH))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+
+		List<ExtDirectPollResponse> responses = this.configurationService.getJsonHandler()
+			.getMapper()
+			.readValue(content, new TypeReference<List<ExtDirectPollResponse>>() {
+				// nothing here
+			});
+		assertThat(responses).extracting(ExtDirectPollResponse::getName)
+			.containsExactly("message3", "message1", "unknown");
+		assertThat(responses).extracting(ExtDirectPollResponse::getType).containsExactly("event", "event", "exception");
+		assertThat(responses.get(0).getData()).isEqualTo("Result: 2");
+		assertThat((String) responses.get(1).getData()).startsWith("Successfully polled at: ");
+		assertThat(responses.get(2).getMessage()).isEqualTo("Server Error");
+	}
+
+	@Test
+	public void apiContainsMultiPollUrl() throws Exception {
+		String api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+		assertThat(api).doesNotContain("MULTI_POLL_URL");
+
+		enableMultiPoll();
+		api = this.mockMvc.perform(get("/api.js")).andReturn().getResponse().getContentAsString();
+		assertThat(api).endsWith("};Ext.app.MULTI_POLL_URL = \"/poll\";");
+	}
+
+}
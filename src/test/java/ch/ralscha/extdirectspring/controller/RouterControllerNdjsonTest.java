@@ -0,0 +1,141 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderBatch;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerNdjsonTest {
+
+	private static final String CALL = "{\"action\":\"remoteProviderBatch\",\"method\":\"%s\",\"tid\":%d,\"type\":\"rpc\",\"data\":%s}";
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RemoteProviderBatch remoteProviderBatch;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(BatchedMethodsExecutionPolicy.CONCURRENT);
+		configuration.setMaxInFlightNdjsonCalls(2);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@Test
+	public void oneLineIsWrittenPerCompletedCall() throws Exception {
+		// awaitRelease holds one of the two slots until tid 2, 3 and 4 released it
+		this.remoteProviderBatch.reset(3);
+		String content = CALL.formatted("awaitRelease", 1, "null") + "\n" + CALL.formatted("release", 2, "[2]")
+				+ "\n\n[" + CALL.formatted("release", 3, "[3]") + "," + CALL.formatted("release", 4, "[4]")
+				+ "]\nnot json\n";
+
+		MockHttpServletResponse response = this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_NDJSON).content(content))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse();
+
+		assertThat(response.getContentType()).startsWith("application/x-ndjson");
+		List<ExtDirectResponse> directResponses = readLines(response);
+		assertThat(directResponses).hasSize(5);
+		assertThat(directResponses).extracting(ExtDirectResponse::getType)
+			.containsOnly("rpc", "exception")
+			.containsOnlyOnce("exception");
+		List<Integer> tids = directResponses.stream()
+			.filter(directResponse -> directResponse.getType().equals("rpc"))
+			.map(ExtDirectResponse::getTid)
+			.toList();
+		assertThat(tids).containsExactlyInAnyOrder(1, 2, 3, 4);
+		assertThat(tids.indexOf(1)).isGreaterThan(tids.indexOf(2)).isGreaterThan(tids.indexOf(3));
+		assertThat(directResponses.stream().filter(directResponse -> directResponse.getTid() == 1).findFirst())
+			.hasValueSatisfying(directResponse -> assertThat(directResponse.getResult()).isEqualTo(true));
+	}
+
+	@Test
+	public void unfinishedCallsAreAnsweredAfterTimeout() throws Exception {
+		Configuration configuration = this.configurationService.getConfiguration();
+		configuration.setBatchedMethodsTimeout(200);
+		this.remoteProviderBatch.reset(1);
+		String content = CALL.formatted("block", 1, "null") + "\n" + CALL.formatted("echo", 2, "[2]") + "\n";
+
+		MockHttpServletResponse response;
+		try {
+			response = this.mockMvc.perform(post("/router").contentType(MediaType.APPLICATION_NDJSON).content(content))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse();
+		}
+		finally {
+			this.remoteProviderBatch.countDown();
+		}
+
+		List<ExtDirectResponse> directResponses = readLines(response);
+		assertThat(directResponses).extracting(ExtDirectResponse::getTid, ExtDirectResponse::getType)
+			.containsExactly(tuple(2, "rpc"), tuple(1, "exception"));
+	}
+
+	private List<ExtDirectResponse> readLines(MockHttpServletResponse response) throws Exception {
+		List<ExtDirectResponse> directResponses = new ArrayList<>();
+		for (String line : response.getContentAsString().lines().toList()) {
+			directResponses
+				.add(this.configurationService.getJsonHandler().getMapper().readValue(line, ExtDirectResponse.class));
+		}
+		return directResponses;
+	}
+
+}
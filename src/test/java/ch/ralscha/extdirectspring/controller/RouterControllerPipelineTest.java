@@ -0,0 +1,213 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderBatch;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerPipelineTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private RouterController routerController;
+
+	@Autowired
+	private RemoteProviderBatch remoteProviderBatch;
+
+	private MockMvc mockMvc;
+
+	private void setup(BatchedMethodsExecutionPolicy policy) {
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutionPolicy(policy);
+		configuration.setPipelineBatchedMethods(true);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void resetConfiguration() throws Exception {
+		this.configurationService.destroy();
+		ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+		this.configurationService.afterPropertiesSet();
+	}
+
+	@ParameterizedTest
+	@EnumSource(BatchedMethodsExecutionPolicy.class)
+	public void pipelinedBatch(BatchedMethodsExecutionPolicy policy) throws Exception {
+		setup(policy);
+
+		List<BeanMethod> beanMethods = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			BeanMethod beanMethod = new BeanMethod("remoteProviderSimple", "method6", new Object[] { i, 1 });
+			beanMethod.setTid(i);
+			beanMethods.add(beanMethod);
+		}
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest(beanMethods));
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).hasSize(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(responses.get(i).getTid()).isEqualTo(i);
+			assertThat(responses.get(i).getResult()).isEqualTo(i + 1);
+		}
+	}
+
+	@Test
+	public void callsParsedBeforeInvalidJsonAreAnswered() throws Exception {
+		setup(BatchedMethodsExecutionPolicy.SEQUENTIAL);
+
+		String json = "[{\"action\":\"remoteProviderSimple\",\"method\":\"method6\",\"tid\":1,"
+				+ "\"type\":\"rpc\",\"data\":[1,2]},{\"action\":";
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc, json);
+
+		List<ExtDirectResponse> responses = ControllerUtil
+			.readDirectResponses(result.getResponse().getContentAsByteArray());
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1);
+		assertThat(responses).extracting(ExtDirectResponse::getResult).containsExactly(3);
+	}
+
+	@Test
+	public void callsStartBeforeTheBodyIsRead() throws Exception {
+		setup(BatchedMethodsExecutionPolicy.CONCURRENT);
+		this.remoteProviderBatch.reset(1);
+
+		String first = "[{\"action\":\"remoteProviderBatch\",\"method\":\"awaitRelease\",\"tid\":1,"
+				+ "\"type\":\"rpc\",\"data\":null}";
+		String rest = ",{\"action\":\"remoteProviderBatch\",\"method\":\"echo\",\"tid\":2,"
+				+ "\"type\":\"rpc\",\"data\":[2]}]";
+		// the rest of the body is only served after the first call started
+		BlockingInputStream inputStream = new BlockingInputStream(first, rest, () -> {
+			boolean started = this.remoteProviderBatch.awaitStarted();
+			this.remoteProviderBatch.countDown();
+			return started;
+		});
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/router") {
+			@Override
+			public ServletInputStream getInputStream() {
+				return inputStream;
+			}
+		};
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		this.routerController.router(request, response, Locale.ENGLISH);
+
+		assertThat(inputStream.startedBeforeRest).isTrue();
+		List<ExtDirectResponse> responses = ControllerUtil.readDirectResponses(response.getContentAsByteArray());
+		assertThat(responses).extracting(ExtDirectResponse::getTid).containsExactly(1, 2);
+		assertThat(responses).extracting(ExtDirectResponse::getResult).containsExactly(true, 2);
+	}
+
+	private static final class BlockingInputStream extends ServletInputStream {
+
+		private final byte[] rest;
+
+		private final Callable<Boolean> beforeRest;
+
+		private ByteArrayInputStream current;
+
+		private boolean restServed;
+
+		private boolean startedBeforeRest;
+
+		BlockingInputStream(String first, String rest, Callable<Boolean> beforeRest) {
+			this.current = new ByteArrayInputStream(first.getBytes(StandardCharsets.UTF_8));
+			this.rest = rest.getBytes(StandardCharsets.UTF_8);
+			this.beforeRest = beforeRest;
+		}
+
+		@Override
+		public int read() {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			int n = this.current.read(b, off, len);
+			if (n == -1 && !this.restServed) {
+				this.restServed = true;
+				try {
+					this.startedBeforeRest = this.beforeRest.call();
+				}
+				catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+				this.current = new ByteArrayInputStream(this.rest);
+				n = this.current.read(b, off, len);
+			}
+			return n;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return this.restServed && this.current.available() == 0;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.provider.RemoteProviderSingleFlight;
+import ch.ralscha.extdirectspring.util.MethodInfoCache;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerSingleFlightTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private RemoteProviderSingleFlight remoteProviderSingleFlight;
+
+	@Autowired
+	private MethodInfoCache methodInfoCache;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderSingleFlight.reset();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@AfterEach
+	public void completePendingCalls() {
+		this.remoteProviderSingleFlight.complete(0);
+	}
+
+	@Test
+	public void concurrentIdenticalCallsAreCoalesced() throws Exception {
+		MvcResult first = startSharedLookup(5);
+		MvcResult second = startSharedLookup(5);
+		assertThat(this.remoteProviderSingleFlight.getSharedLookups()).isEqualTo(1);
+
+		this.remoteProviderSingleFlight.complete(10);
+
+		assertThat(ControllerUtil.readDirectResponses(first.getResponse().getContentAsByteArray()).get(0).getResult())
+			.isEqualTo(50);
+		assertThat(ControllerUtil.readDirectResponses(second.getResponse().getContentAsByteArray()).get(0).getResult())
+			.isEqualTo(50);
+		assertThat(this.remoteProviderSingleFlight.getSharedLookups()).isEqualTo(1);
+	}
+
+	@Test
+	public void callsWithDifferentParametersAreNotCoalesced() throws Exception {
+		MvcResult first = startSharedLookup(5);
+		MvcResult second = startSharedLookup(6);
+
+		this.remoteProviderSingleFlight.complete(10);
+
+		assertThat(ControllerUtil.readDirectResponses(first.getResponse().getContentAsByteArray()).get(0).getResult())
+			.isEqualTo(50);
+		assertThat(ControllerUtil.readDirectResponses(second.getResponse().getContentAsByteArray()).get(0).getResult())
+			.isEqualTo(60);
+		assertThat(this.remoteProviderSingleFlight.getSharedLookups()).isEqualTo(2);
+	}
+
+	@Test
+	public void methodWithServerParametersIsNotCoalesced() throws Exception {
+		assertThat(this.methodInfoCache.get("remoteProviderSingleFlight", "userLookup").getSingleFlight()).isNull();
+
+		assertThat(userLookup("alice")).isEqualTo("alice:1");
+		assertThat(userLookup("bob")).isEqualTo("bob:1");
+		assertThat(this.remoteProviderSingleFlight.getSharedLookups()).isEqualTo(2);
+	}
+
+	private Object userLookup(String user) throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.principal(() -> user)
+				.content(ControllerUtil.createEdsRequest("remoteProviderSingleFlight", "userLookup", 1,
+						new Object[] { 1 })))
+			.andExpect(status().isOk())
+			.andReturn();
+		return ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()).get(0).getResult();
+	}
+
+	private MvcResult startSharedLookup(int value) throws Exception {
+		return this.mockMvc
+			.perform(post("/router").contentType(MediaType.APPLICATION_JSON)
+				.content(ControllerUtil.createEdsRequest("remoteProviderSingleFlight", "sharedLookup", 1,
+						new Object[] { value })))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import ch.ralscha.extdirectspring.bean.BeanMethod;
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderStreaming;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class RouterControllerStreamingStoreReadTest {
+
+	@Autowired
+	private WebApplicationContext wac;
+
+	@Autowired
+	private RemoteProviderStreaming remoteProviderStreaming;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setupMockMvc() {
+		this.remoteProviderStreaming.reset();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+	}
+
+	@Test
+	public void streamedRecordsAreWrittenAndStreamIsClosed() throws Exception {
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest("remoteProviderStreaming", "streamRecords", 1, null));
+
+		assertThat(ControllerUtil.readDirectResponses(result.getResponse().getContentAsByteArray()))
+			.extracting(ExtDirectResponse::getResult)
+			.containsExactly(List.of(1, 2, 3));
+		assertThat(result.getResponse().getHeader("Content-Length")).isNull();
+		assertThat(this.remoteProviderStreaming.getClosedStreams()).isEqualTo(1);
+	}
+
+	@Test
+	public void totalOfStreamingStoreResultIsWrittenAfterRecords() throws Exception {
+		BeanMethod withTotal = new BeanMethod("remoteProviderStreaming", "streamRecordsWithTotal");
+		withTotal.setTid(1);
+		BeanMethod records = new BeanMethod("remoteProviderStreaming", "streamRecords");
+		records.setTid(2);
+
+		MvcResult result = ControllerUtil.performRouterRequest(this.mockMvc,
+				ControllerUtil.createEdsRequest(List.of(withTotal, records)));
+
+		String content = result.getResponse().getContentAsString();
+		assertThat(content).contains("\"records\":[\"a\",\"b\"],\"total\":2");
+		assertThat(content).contains("\"result\":[1,2,3]");
+		assertThat(this.remoteProviderStreaming.getClosedStreams()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+public class SessionLockManagerTest {
+
+	private final SessionLockManager sessionLockManager = new SessionLockManager();
+
+	@Test
+	public void testLockPerSession() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		Lock writeLock = this.sessionLockManager.getLock(session, false);
+		assertThat(this.sessionLockManager.getLock(session, false)).isSameAs(writeLock);
+		assertThat(session.getAttributeNames().hasMoreElements()).isTrue();
+
+		MockHttpSession otherSession = new MockHttpSession();
+		Lock otherWriteLock = this.sessionLockManager.getLock(otherSession, false);
+		assertThat(otherWriteLock).isNotSameAs(writeLock);
+
+		writeLock.lock();
+		try {
+			assertThat(tryLockInOtherThread(otherWriteLock)).isTrue();
+			assertThat(tryLockInOtherThread(this.sessionLockManager.getLock(session, true))).isFalse();
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Test
+	public void testReadLockIsShared() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		Lock readLock = this.sessionLockManager.getLock(session, true);
+		readLock.lock();
+		try {
+			assertThat(tryLockInOtherThread(this.sessionLockManager.getLock(session, true))).isTrue();
+			assertThat(tryLockInOtherThread(this.sessionLockManager.getLock(session, false))).isFalse();
+		}
+		finally {
+			readLock.unlock();
+		}
+	}
+
+	private static boolean tryLockInOtherThread(Lock lock) throws Exception {
+		return CompletableFuture.supplyAsync(() -> {
+			if (lock.tryLock()) {
+				lock.unlock();
+				return true;
+			}
+			return false;
+		}).get(5, TimeUnit.SECONDS);
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import ch.ralscha.extdirectspring.bean.ExtDirectResponse;
+import ch.ralscha.extdirectspring.provider.RemoteProviderAsync;
+
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration("classpath:/testApplicationContextRouter.xml")
+public class WebSocketRouterHandlerTest {
+
+	@Autowired
+	private RouterController routerController;
+
+	@Autowired
+	private ConfigurationService configurationService;
+
+	@Autowired
+	private PollEventPublisher pollEventPublisher;
+
+	@Autowired
+	private RemoteProviderAsync remoteProviderAsync;
+
+	private final List<String> messages = new CopyOnWriteArrayList<>();
+
+	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+	private WebSocketRouterHandler handler;
+
+	private WebSocketSession session;
+
+	@BeforeEach
+	public void setupHandler() {
+		this.remoteProviderAsync.reset();
+		this.handler = new WebSocketRouterHandler(this.routerController, this.configurationService,
+				this.pollEventPublisher);
+
+		HttpHeaders handshakeHeaders = new HttpHeaders();
+		handshakeHeaders.add(HttpHeaders.ACCEPT_LANGUAGE, "de-CH");
+		handshakeHeaders.add("X-Client", "desktop");
+		Principal principal = () -> "bob";
+		this.session = (WebSocketSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebSocketSession.class }, (proxy, method, args) -> switch (method.getName()) {
+					case "getId" -> "1";
+					case "getAttributes" -> this.attributes;
+					case "getHandshakeHeaders" -> handshakeHeaders;
+					case "getPrincipal" -> principal;
+					case "getUri" -> URI.create("wss://localhost/websocket");
+					case "getRemoteAddress" -> new InetSocketAddress("127.0.0.1", 40000);
+					case "isOpen" -> true;
+					case "sendMessage" -> this.messages.add(((TextMessage) args[0]).getPayload());
+					default -> null;
+				});
+		this.handler.afterConnectionEstablished(this.session);
+	}
+
+	@AfterEach
+	public void closeSession() {
+		this.handler.afterConnectionClosed(this.session, CloseStatus.NORMAL);
+		this.remoteProviderAsync.complete("done");
+	}
+
+	@Test
+	public void responsesAreSentAsTheyComplete() throws Exception {
+		this.handler.handleMessage(this.session, new TextMessage(
+				"[{\"action\":\"remoteProviderAsync\",\"method\":\"asyncValue\",\"tid\":1,\"type\":\"rpc\",\"data\":null},"
+						+ "{\"action\":\"remoteProviderAsync\",\"method\":\"syncValue\",\"tid\":2,\"type\":\"rpc\",\"data\":[0]}]"));
+
+		assertThat(this.messages).hasSize(1);
+		ExtDirectResponse directResponse = readResponse(0);
+		assertThat(directResponse.getTid()).isEqualTo(2);
+		assertThat(directResponse.getResult()).isEqualTo(0);
+
+		this.remoteProviderAsync.complete("late");
+		assertThat(this.messages).hasSize(2);
+		directResponse = readResponse(1);
+		assertThat(directResponse.getTid()).isEqualTo(1);
+		assertThat(directResponse.getResult()).isEqualTo("late");
+	}
+
+	@Test
+	public void eventsArePushedUntilConnectionIsClosed() {
+		this.pollEventPublisher.publish("message", "hello");
+		assertThat(this.messages).containsExactly("{\"data\":\"hello\",\"name\":\"message\",\"type\":\"event\"}");
+
+		this.handler.afterConnectionClosed(this.session, CloseStatus.NORMAL);
+		this.pollEventPublisher.publish("message", "bye");
+		assertThat(this.messages).hasSize(1);
+	}
+
+	@Test
+	public void handshakeSessionIsPassedToMethods() throws Exception {
+		MockHttpServletRequest handshakeRequest = new MockHttpServletRequest();
+		MockHttpSession httpSession = new MockHttpSession();
+		httpSession.setAttribute("user", "alice");
+		handshakeRequest.setSession(httpSession);
+		Map<String, Object> handshakeAttributes = new HashMap<>();
+		assertThat(new WebSocketHandshakeInterceptor().beforeHandshake(new ServletServerHttpRequest(handshakeRequest),
+				new ServletServerHttpResponse(new MockHttpServletResponse()), this.handler, handshakeAttributes))
+			.isTrue();
+		assertThat(handshakeAttributes).containsEntry(WebSocketHandshakeInterceptor.HTTP_SESSION_ATTRIBUTE,
+				httpSession);
+		this.attributes.putAll(handshakeAttributes);
+
+		this.handler.handleMessage(this.session, new TextMessage(
+				"{\"action\":\"remoteProviderAsync\",\"method\":\"sessionValue\",\"tid\":1,\"type\":\"rpc\",\"data\":null}"));
+
+		assertThat(this.messages).hasSize(1);
+		ExtDirectResponse directResponse = readResponse(0);
+		assertThat(directResponse.getType()).isEqualTo("rpc");
+		assertThat(directResponse.getResult()).isEqualTo("alice");
+	}
+
+	@Test
+	public void handshakeValuesArePassedToMethods() throws Exception {
+		MockHttpSession httpSession = new MockHttpSession();
+		httpSession.setAttribute("user", "alice");
+		this.attributes.put(WebSocketHandshakeInterceptor.HTTP_SESSION_ATTRIBUTE, httpSession);
+
+		this.handler.handleMessage(this.session, new TextMessage(
+				"{\"action\":\"remoteProviderAsync\",\"method\":\"handshakeValues\",\"tid\":1,\"type\":\"rpc\",\"data\":null}"));
+
+		assertThat(this.messages).hasSize(1);
+		ExtDirectResponse directResponse = readResponse(0);
+		assertThat(directResponse.getType()).isEqualTo("rpc");
+		assertThat(directResponse.getResult()).isEqualTo("desktop,bob,alice,de-CH,https,127.0.0.1");
+	}
+
+	@Test
+	public void methodWithoutSessionFails() throws Exception {
+		this.handler.handleMessage(this.session, new TextMessage(
+				"{\"action\":\"remoteProviderAsync\",\"method\":\"sessionValue\",\"tid\":1,\"type\":\"rpc\",\"data\":null}"));
+
+		assertThat(this.messages).hasSize(1);
+		assertThat(readResponse(0).getType()).isEqualTo("exception");
+	}
+
+	@Test
+	public void rejectedCallsAreAnswered() throws Exception {
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		executorService.shutdown();
+		Configuration configuration = new Configuration();
+		configuration.setBatchedMethodsExecutorService(executorService);
+		ReflectionTestUtils.setField(this.configurationService, "configuration", configuration);
+		this.configurationService.afterPropertiesSet();
+		try {
+			this.handler.handleMessage(this.session, new TextMessage(
+					"[{\"action\":\"remoteProviderAsync\",\"method\":\"syncValue\",\"tid\":1,\"type\":\"rpc\",\"data\":[1]},"
+							+ "{\"action\":\"remoteProviderAsync\",\"method\":\"syncValue\",\"tid\":2,\"type\":\"rpc\",\"data\":[2]}]"));
+		}
+		finally {
+			ReflectionTestUtils.setField(this.configurationService, "configuration", new Configuration());
+			this.configurationService.afterPropertiesSet();
+		}
+
+		assertThat(this.messages).hasSize(2);
+		assertThat(List.of(readResponse(0), readResponse(1))).extracting(ExtDirectResponse::getType)
+			.containsOnly("exception");
+		assertThat(List.of(readResponse(0), readResponse(1))).extracting(ExtDirectResponse::getTid)
+			.containsExactly(1, 2);
+	}
+
+	private ExtDirectResponse readResponse(int index) {
+		return this.configurationService.getJsonHandler()
+			.getMapper()
+			.readValue(this.messages.get(index), ExtDirectResponse.class);
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+
+public class PollProviderChanges {
+
+	private final AtomicInteger changes = new AtomicInteger();
+
+	private final AtomicInteger statusCalls = new AtomicInteger();
+
+	private volatile CountDownLatch release = new CountDownLatch(1);
+
+	public void reset() {
+		this.changes.set(0);
+		this.statusCalls.set(0);
+		this.release = new CountDownLatch(1);
+	}
+
+	public void release() {
+		this.release.countDown();
+	}
+
+	public int getChanges() {
+		return this.changes.get();
+	}
+
+	public int getStatusCalls() {
+		return this.statusCalls.get();
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.POLL)
+	public int changes() {
+		return this.changes.incrementAndGet();
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.POLL)
+	public int slowChanges() throws InterruptedException {
+		this.release.await(5, TimeUnit.SECONDS);
+		return this.changes.incrementAndGet();
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, longPollingTimeout = 30_000)
+	public int longPollChanges() {
+		return this.changes.incrementAndGet();
+	}
+
+	@ExtDirectMethod(value = ExtDirectMethodType.POLL, broadcastInterval = 60_000)
+	public String systemStatus() {
+		return "status " + this.statusCalls.incrementAndGet();
+	}
+
+}
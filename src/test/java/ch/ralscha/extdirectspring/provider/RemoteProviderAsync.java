@@ -0,0 +1,85 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+public class RemoteProviderAsync {
+
+	private volatile CompletableFuture<String> pending = new CompletableFuture<>();
+
+	private volatile CountDownLatch started = new CountDownLatch(1);
+
+	public void reset() {
+		this.pending = new CompletableFuture<>();
+		this.started = new CountDownLatch(1);
+	}
+
+	public boolean awaitStarted() throws InterruptedException {
+		return this.started.await(5, TimeUnit.SECONDS);
+	}
+
+	public void complete(String value) {
+		this.pending.complete(value);
+	}
+
+	@ExtDirectMethod
+	public CompletableFuture<String> asyncValue() {
+		this.started.countDown();
+		return this.pending;
+	}
+
+	@ExtDirectMethod
+	public CompletionStage<String> asyncFailure() {
+		return CompletableFuture.failedFuture(new IllegalStateException("failed"));
+	}
+
+	@ExtDirectMethod
+	public int syncValue(int value) {
+		return value;
+	}
+
+	@ExtDirectMethod(synchronizeOnSession = true)
+	public String sessionValue(HttpSession session, HttpServletResponse response) throws IOException {
+		response.getWriter().write("discarded");
+		return (String) session.getAttribute("user");
+	}
+
+	@ExtDirectMethod
+	public String handshakeValues(HttpServletRequest request, HttpSession session, Principal principal, Locale locale) {
+		return String.join(",", request.getHeader("X-Client"), principal.getName(),
+				(String) session.getAttribute("user"), locale.toLanguageTag(), request.getScheme(),
+				request.getRemoteAddr());
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.POLL)
+	public CompletableFuture<String> asyncPoll() {
+		return this.pending;
+	}
+
+}
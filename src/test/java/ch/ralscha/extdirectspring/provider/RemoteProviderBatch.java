@@ -0,0 +1,93 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class RemoteProviderBatch {
+
+	private volatile CountDownLatch release = new CountDownLatch(1);
+
+	private volatile CountDownLatch started = new CountDownLatch(1);
+
+	private volatile CountDownLatch interrupted = new CountDownLatch(1);
+
+	public void reset(int releaseCount) {
+		this.release = new CountDownLatch(releaseCount);
+		this.started = new CountDownLatch(1);
+		this.interrupted = new CountDownLatch(1);
+	}
+
+	public void countDown() {
+		this.release.countDown();
+	}
+
+	public boolean awaitStarted() throws InterruptedException {
+		return this.started.await(5, TimeUnit.SECONDS);
+	}
+
+	public boolean awaitInterrupted() throws InterruptedException {
+		return this.interrupted.await(5, TimeUnit.SECONDS);
+	}
+
+	@ExtDirectMethod
+	public int echo(int value) {
+		return value;
+	}
+
+	@ExtDirectMethod
+	public int release(int value) {
+		this.release.countDown();
+		return value;
+	}
+
+	@ExtDirectMethod
+	public boolean awaitRelease() throws InterruptedException {
+		this.started.countDown();
+		return this.release.await(5, TimeUnit.SECONDS);
+	}
+
+	@ExtDirectMethod
+	public boolean block() throws InterruptedException {
+		this.started.countDown();
+		try {
+			return this.release.await(30, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			this.interrupted.countDown();
+			throw e;
+		}
+	}
+
+	@ExtDirectMethod
+	public boolean virtualThread() throws Exception {
+		this.release.countDown();
+		if (!this.release.await(5, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("Not all calls are running");
+		}
+		// Thread.isVirtual() is not available in the Java 17 API
+		return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+	}
+
+	@ExtDirectMethod
+	public String threadName() {
+		return Thread.currentThread().getName();
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.CompletableFuture;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class RemoteProviderBulkhead {
+
+	private volatile CompletableFuture<String> pending = new CompletableFuture<>();
+
+	public void reset() {
+		this.pending = new CompletableFuture<>();
+	}
+
+	public void complete(String value) {
+		this.pending.complete(value);
+	}
+
+	@ExtDirectMethod(maxConcurrentCalls = 1)
+	public CompletableFuture<String> limited() {
+		return this.pending;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectCacheable;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class RemoteProviderCacheable {
+
+	private final AtomicInteger cachedLookups = new AtomicInteger();
+
+	private final AtomicInteger staleLookups = new AtomicInteger();
+
+	public void reset() {
+		this.cachedLookups.set(0);
+		this.staleLookups.set(0);
+	}
+
+	public int getCachedLookups() {
+		return this.cachedLookups.get();
+	}
+
+	public int getStaleLookups() {
+		return this.staleLookups.get();
+	}
+
+	@ExtDirectMethod
+	@ExtDirectCacheable
+	public List<String> cachedLookup(int value) {
+		this.cachedLookups.incrementAndGet();
+		return List.of(String.valueOf(value));
+	}
+
+	@ExtDirectMethod
+	@ExtDirectCacheable(timeToLive = 0, maxStaleness = 60_000, timeUnit = TimeUnit.MILLISECONDS)
+	public int staleLookup() {
+		return this.staleLookups.incrementAndGet();
+	}
+
+	@ExtDirectMethod
+	@ExtDirectCacheable
+	public String userLookup(int value, Principal principal) {
+		this.cachedLookups.incrementAndGet();
+		return principal.getName() + ":" + value;
+	}
+
+}
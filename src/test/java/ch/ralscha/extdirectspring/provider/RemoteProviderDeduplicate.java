@@ -0,0 +1,40 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class RemoteProviderDeduplicate {
+
+	private final AtomicInteger lookups = new AtomicInteger();
+
+	public void reset() {
+		this.lookups.set(0);
+	}
+
+	public int getLookups() {
+		return this.lookups.get();
+	}
+
+	@ExtDirectMethod(deduplicateCalls = true)
+	public int lookup(int value) {
+		this.lookups.incrementAndGet();
+		return value * 10;
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class RemoteProviderReadOnly {
+
+	private final CyclicBarrier readers = new CyclicBarrier(2);
+
+	public void reset() {
+		this.readers.reset();
+	}
+
+	@ExtDirectMethod(readOnly = true)
+	public boolean awaitOtherReader() throws Exception {
+		try {
+			this.readers.await(5, TimeUnit.SECONDS);
+			return true;
+		}
+		catch (TimeoutException e) {
+			return false;
+		}
+	}
+
+	@ExtDirectMethod
+	public int increment(int value) {
+		return value + 1;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+
+public class RemoteProviderSingleFlight {
+
+	private final AtomicInteger sharedLookups = new AtomicInteger();
+
+	private volatile CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+	public void reset() {
+		this.sharedLookups.set(0);
+		this.pending = new CompletableFuture<>();
+	}
+
+	public void complete(int value) {
+		this.pending.complete(value);
+	}
+
+	public int getSharedLookups() {
+		return this.sharedLookups.get();
+	}
+
+	@ExtDirectMethod(singleFlight = true)
+	public CompletableFuture<Integer> sharedLookup(int value) {
+		this.sharedLookups.incrementAndGet();
+		return this.pending.thenApply(result -> result * value);
+	}
+
+	@ExtDirectMethod(singleFlight = true)
+	public String userLookup(int value, Principal principal) {
+		this.sharedLookups.incrementAndGet();
+		return principal.getName() + ":" + value;
+	}
+
+}
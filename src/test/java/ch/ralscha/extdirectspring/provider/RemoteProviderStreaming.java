@@ -0,0 +1,51 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.bean.StreamingStoreResult;
+
+public class RemoteProviderStreaming {
+
+	private final AtomicInteger closedStreams = new AtomicInteger();
+
+	public void reset() {
+		this.closedStreams.set(0);
+	}
+
+	public int getClosedStreams() {
+		return this.closedStreams.get();
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.STORE_READ)
+	public Stream<Integer> streamRecords() {
+		return Stream.of(1, 2, 3).onClose(this.closedStreams::incrementAndGet);
+	}
+
+	@ExtDirectMethod(ExtDirectMethodType.STORE_READ)
+	public StreamingStoreResult<String> streamRecordsWithTotal() {
+		AtomicInteger count = new AtomicInteger();
+		Stream<String> records = Stream.of("a", "b")
+			.peek(r -> count.incrementAndGet())
+			.onClose(this.closedStreams::incrementAndGet);
+		return new StreamingStoreResult<>(records, count::get);
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class BroadcastCacheTest {
+
+	private static final long TIMEOUT = 5_000;
+
+	@Test
+	public void testComputedOncePerInterval() throws Exception {
+		BroadcastCache cache = new BroadcastCache(60_000);
+		AtomicInteger calls = new AtomicInteger();
+
+		byte[] first = cache.get("event", () -> bytes(calls.incrementAndGet()), TIMEOUT);
+		assertThat(cache.get("event", () -> bytes(calls.incrementAndGet()), TIMEOUT)).isSameAs(first);
+		assertThat(calls.get()).isEqualTo(1);
+
+		cache.clear("other");
+		assertThat(cache.get("event", () -> bytes(calls.incrementAndGet()), TIMEOUT)).isSameAs(first);
+
+		cache.clear("event");
+		assertThat(cache.get("event", () -> bytes(calls.incrementAndGet()), TIMEOUT)).isEqualTo(bytes(2));
+	}
+
+	@Test
+	public void testEventsAreCachedSeparately() throws Exception {
+		BroadcastCache cache = new BroadcastCache(60_000);
+
+		assertThat(cache.get("first", () -> bytes(1), TIMEOUT)).isEqualTo(bytes(1));
+		assertThat(cache.get("second", () -> bytes(2), TIMEOUT)).isEqualTo(bytes(2));
+		assertThat(cache.get("first", () -> bytes(3), TIMEOUT)).isEqualTo(bytes(1));
+		assertThat(cache.get("second", () -> bytes(4), TIMEOUT)).isEqualTo(bytes(2));
+	}
+
+	@Test
+	public void testResponseComputedDuringClearIsNotCached() throws Exception {
+		BroadcastCache cache = new BroadcastCache(60_000);
+
+		assertThat(cache.get("event", () -> {
+			cache.clear("event");
+			return bytes(1);
+		}, TIMEOUT)).isEqualTo(bytes(1));
+		assertThat(cache.get("event", () -> bytes(2), TIMEOUT)).isEqualTo(bytes(2));
+	}
+
+	@Test
+	public void testExpiredInterval() throws Exception {
+		BroadcastCache cache = new BroadcastCache(0);
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThat(cache.get("event", () -> bytes(calls.incrementAndGet()), TIMEOUT)).isEqualTo(bytes(1));
+		assertThat(cache.get("event", () -> bytes(calls.incrementAndGet()), TIMEOUT)).isEqualTo(bytes(2));
+	}
+
+	@Test
+	public void testExceptionIsNotCached() throws Exception {
+		BroadcastCache cache = new BroadcastCache(60_000);
+
+		assertThatThrownBy(() -> cache.get("event", () -> {
+			throw new IllegalStateException("failed");
+		}, TIMEOUT)).isInstanceOf(IllegalStateException.class);
+
+		assertThat(cache.get("event", () -> bytes(1), TIMEOUT)).isEqualTo(bytes(1));
+	}
+
+	@Test
+	public void testWaitForRunningComputationIsBounded() throws Exception {
+		BroadcastCache cache = new BroadcastCache(60_000);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<byte[]> running = CompletableFuture.supplyAsync(() -> {
+			try {
+				return cache.get("event", () -> {
+					started.countDown();
+					release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+					return bytes(1);
+				}, TIMEOUT);
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		try {
+			assertThat(started.await(TIMEOUT, TimeUnit.MILLISECONDS)).isTrue();
+
+			// other events are not blocked by the running computation
+			assertThat(cache.get("other", () -> bytes(2), TIMEOUT)).isEqualTo(bytes(2));
+			assertThatThrownBy(() -> cache.get("event", () -> bytes(3), 10)).isInstanceOf(TimeoutException.class);
+		}
+		finally {
+			release.countDown();
+		}
+
+		assertThat(running.get(TIMEOUT, TimeUnit.MILLISECONDS)).isEqualTo(bytes(1));
+		assertThat(cache.get("event", () -> bytes(4), TIMEOUT)).isEqualTo(bytes(1));
+	}
+
+	@Test
+	public void testNumberOfEventsIsLimited() throws Exception {
+		BroadcastCache cache = new BroadcastCache(60_000);
+		for (int i = 0; i < BroadcastCache.MAX_EVENTS; i++) {
+			cache.get("event" + i, () -> bytes(1), TIMEOUT);
+		}
+
+		assertThat(cache.get("last", () -> bytes(2), TIMEOUT)).isEqualTo(bytes(2));
+		assertThat(cache.get("last", () -> bytes(3), TIMEOUT)).isEqualTo(bytes(3));
+		assertThat(cache.get("event0", () -> bytes(4), TIMEOUT)).isEqualTo(bytes(1));
+	}
+
+	private static byte[] bytes(int value) {
+		return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+	}
+
+}
@@ -20,11 +20,14 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.assertj.core.data.MapEntry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.ContextConfiguration;
@@ -219,4 +222,51 @@ public class JsonHandlerTest {
 		}
 	}
 
+	@Test
+	public void testReadDirectRequests() {
+		JsonHandler jsonHandler = new JsonHandler();
+
+		String json = "[{\"action\":\"a1\",\"method\":\"m1\",\"data\":[1,\"two\",{\"three\":3}],"
+				+ "\"type\":\"rpc\",\"tid\":1,\"unknown\":{\"x\":[1]}},"
+				+ "{\"tid\":2,\"action\":\"a2\",\"method\":\"m2\",\"data\":null,\"metadata\":{\"id\":7},"
+				+ "\"type\":\"rpc\"}]";
+
+		List<ExtDirectRequest> requests = jsonHandler
+			.readDirectRequests(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		assertThat(requests).hasSize(2);
+
+		ExtDirectRequest req = requests.get(0);
+		assertEquals("a1", req.getAction());
+		assertEquals("m1", req.getMethod());
+		assertEquals("rpc", req.getType());
+		assertEquals(1, req.getTid());
+		assertThat((List<Object>) req.getData()).containsExactly(1, "two", Map.of("three", 3));
+		assertThat(req.getMetadata()).isNull();
+
+		req = requests.get(1);
+		assertEquals("a2", req.getAction());
+		assertEquals("m2", req.getMethod());
+		assertEquals(2, req.getTid());
+		assertThat(req.getData()).isNull();
+		assertThat(req.getMetadata()).containsExactly(MapEntry.entry("id", 7));
+
+		requests = jsonHandler.readDirectRequests(new ByteArrayInputStream(
+				"{\"action\":\"a\",\"method\":\"m\",\"tid\":3}".getBytes(StandardCharsets.UTF_8)));
+		assertThat(requests).hasSize(1);
+		assertEquals(3, requests.get(0).getTid());
+
+		assertThat(jsonHandler.readDirectRequests(new ByteArrayInputStream("\"a\"".getBytes(StandardCharsets.UTF_8))))
+			.isNull();
+		assertThat(jsonHandler
+			.readDirectRequests(new ByteArrayInputStream("[{\"action\"".getBytes(StandardCharsets.UTF_8)))).isNull();
+		assertThat(jsonHandler.readDirectRequests(
+				new ByteArrayInputStream("[{\"tid\":1},2,{\"tid\":3}]".getBytes(StandardCharsets.UTF_8))))
+			.isNull();
+		assertThat(jsonHandler
+			.readDirectRequests(new ByteArrayInputStream("[{\"tid\":1},null]".getBytes(StandardCharsets.UTF_8))))
+			.isNull();
+		assertThat(jsonHandler.readDirectRequests(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8))))
+			.isEmpty();
+	}
+
 }
@@ -20,9 +20,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
 import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
@@ -135,4 +140,69 @@ public class MethodInfoCacheTest {
 		}
 	}
 
+	@Test
+	public void testInvokeCachesOnlySingletonBeans() throws Exception {
+		Method method = CountingBean.class.getMethod("instanceCount");
+		Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+		try (GenericApplicationContext context = new GenericApplicationContext() {
+			@Override
+			public Object getBean(String name) {
+				lookups.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+				return super.getBean(name);
+			}
+		}) {
+			context.registerBean("singletonBean", CountingBean.class);
+			context.registerBean("prototypeBean", CountingBean.class,
+					bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+			context.refresh();
+
+			int before = CountingBean.INSTANCES.get();
+			MethodInfo singletonInfo = new MethodInfo(CountingBean.class, context, "singletonBean", method);
+			ExtDirectSpringUtil.invoke(context, "singletonBean", singletonInfo, null);
+			ExtDirectSpringUtil.invoke(context, "singletonBean", singletonInfo, null);
+			assertThat(lookups.get("singletonBean")).hasValue(1);
+			assertThat(CountingBean.INSTANCES.get()).isEqualTo(before);
+
+			MethodInfo prototypeInfo = new MethodInfo(CountingBean.class, context, "prototypeBean", method);
+			ExtDirectSpringUtil.invoke(context, "prototypeBean", prototypeInfo, null);
+			ExtDirectSpringUtil.invoke(context, "prototypeBean", prototypeInfo, null);
+			assertThat(lookups.get("prototypeBean")).hasValue(2);
+			assertThat(CountingBean.INSTANCES.get()).isEqualTo(before + 2);
+		}
+	}
+
+	@Test
+	public void testInvokeWrapsTargetException() throws Exception {
+		Method method = CountingBean.class.getMethod("fail");
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean("singletonBean", CountingBean.class);
+			context.refresh();
+
+			MethodInfo info = new MethodInfo(CountingBean.class, context, "singletonBean", method);
+			InvocationTargetException e = assertThrows(InvocationTargetException.class,
+					() -> ExtDirectSpringUtil.invoke(context, "singletonBean", info, null));
+			assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("fail");
+		}
+	}
+
+	public static class CountingBean {
+
+		static final AtomicInteger INSTANCES = new AtomicInteger();
+
+		public CountingBean() {
+			INSTANCES.incrementAndGet();
+		}
+
+		@ExtDirectMethod
+		public int instanceCount() {
+			return INSTANCES.get();
+		}
+
+		@ExtDirectMethod
+		public void fail() {
+			throw new IllegalStateException("fail");
+		}
+
+	}
+
 }
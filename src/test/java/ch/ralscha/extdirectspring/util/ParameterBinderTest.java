@@ -0,0 +1,135 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethod;
+import ch.ralscha.extdirectspring.annotation.ExtDirectMethodType;
+import ch.ralscha.extdirectspring.annotation.MetadataParam;
+import ch.ralscha.extdirectspring.bean.ExtDirectRequest;
+import ch.ralscha.extdirectspring.bean.ExtDirectStoreReadRequest;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+public class ParameterBinderTest {
+
+	private final ParametersResolver resolver = new ParametersResolver(new DefaultConversionService(),
+			new JsonHandler());
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	public void testBindersAreCreatedOncePerMethod() {
+		MethodInfo methodInfo = methodInfo("mixed");
+		ParameterBinder[] binders = methodInfo.getParameterBinders();
+		assertThat(binders).hasSize(6);
+		assertThat(methodInfo.getParameterBinders()).isSameAs(binders);
+	}
+
+	@Test
+	public void testRemoteMethod() throws Exception {
+		this.request.addHeader("X-Test", "header");
+		this.request.setCookies(new Cookie("c", "cookie"));
+		ExtDirectRequest directRequest = directRequest(List.of(1));
+		directRequest.setMetadata(Map.of("id", 7));
+
+		Object[] parameters = this.resolver.resolveParameters(this.request, this.response, Locale.GERMAN, directRequest,
+				methodInfo("mixed"));
+
+		assertThat(parameters).containsExactly(this.request, 1, "header", Locale.GERMAN, "cookie", 7);
+	}
+
+	@Test
+	public void testStoreReadMethod() throws Exception {
+		ExtDirectRequest directRequest = directRequest(List.of(Map.of("limit", 10, "name", "text")));
+
+		Object[] parameters = this.resolver.resolveParameters(this.request, this.response, Locale.ENGLISH,
+				directRequest, methodInfo("storeRead"));
+
+		assertThat(parameters).hasSize(2);
+		assertThat(((ExtDirectStoreReadRequest) parameters[0]).getLimit()).isEqualTo(10);
+		assertThat(parameters[1]).isEqualTo("text");
+	}
+
+	@Test
+	public void testPollMethod() {
+		this.request.addParameter("id", "3");
+		this.request.addHeader("X-Test", "header");
+
+		Object[] parameters = this.resolver.prepareParameters(this.request, this.response, Locale.ENGLISH,
+				methodInfo("poll"));
+
+		assertThat(parameters).containsExactly(this.request, 3, "header");
+	}
+
+	private static ExtDirectRequest directRequest(Object data) {
+		ExtDirectRequest directRequest = new ExtDirectRequest();
+		directRequest.setAction("binderBean");
+		directRequest.setTid(1);
+		directRequest.setType("rpc");
+		directRequest.setData(data);
+		return directRequest;
+	}
+
+	private static MethodInfo methodInfo(String methodName) {
+		Method method = ReflectionUtils.findMethod(BinderBean.class, methodName, (Class<?>[]) null);
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean("binderBean", BinderBean.class);
+			context.refresh();
+			return new MethodInfo(BinderBean.class, context, "binderBean", method);
+		}
+	}
+
+	public static class BinderBean {
+
+		@ExtDirectMethod
+		public void mixed(HttpServletRequest request, int first, @RequestHeader("X-Test") String header, Locale locale,
+				@CookieValue("c") String cookie, @MetadataParam("id") int id) {
+			// parameters only
+		}
+
+		@ExtDirectMethod(ExtDirectMethodType.STORE_READ)
+		public void storeRead(ExtDirectStoreReadRequest readRequest, @RequestParam("name") String name) {
+			// parameters only
+		}
+
+		@ExtDirectMethod(ExtDirectMethodType.POLL)
+		public void poll(HttpServletRequest request, @RequestParam("id") int id,
+				@RequestHeader("X-Test") String header) {
+			// parameters only
+		}
+
+	}
+
+}
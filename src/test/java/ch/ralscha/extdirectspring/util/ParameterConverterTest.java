@@ -0,0 +1,130 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import ch.ralscha.extdirectspring.bean.SortDirection;
+
+public class ParameterConverterTest {
+
+	private final JsonHandler jsonHandler = new JsonHandler();
+
+	private final ParametersResolver resolver = new ParametersResolver(new DefaultFormattingConversionService(),
+			this.jsonHandler);
+
+	@SuppressWarnings("unused")
+	private void method(long id, SortDirection direction, LocalDate day, String name, List<JsonTestBean> beans) {
+		// nothing here
+	}
+
+	private static ParameterInfo parameter(int index) throws NoSuchMethodException {
+		Method method = ParameterConverterTest.class.getDeclaredMethod("method", long.class, SortDirection.class,
+				LocalDate.class, String.class, List.class);
+		return new ParameterInfo(ParameterConverterTest.class, method, index);
+	}
+
+	private Object convert(ParameterInfo parameter, Object value) {
+		return parameter.getConverter().convert(value, parameter, this.resolver);
+	}
+
+	@Test
+	public void testGenericConverter() throws NoSuchMethodException {
+		assertThat(parameter(3).getConverter()).isSameAs(ParameterConverter.GENERIC);
+		assertThat(parameter(0).getConverter()).isNotSameAs(ParameterConverter.GENERIC);
+	}
+
+	@Test
+	public void testLong() throws NoSuchMethodException {
+		ParameterInfo parameter = parameter(0);
+		assertThat(convert(parameter, 12)).isEqualTo(12L);
+		assertThat(convert(parameter, 13L)).isEqualTo(13L);
+		assertThat(convert(parameter, "14")).isEqualTo(14L);
+	}
+
+	@Test
+	public void testEnum() throws NoSuchMethodException {
+		ParameterInfo parameter = parameter(1);
+		assertThat(convert(parameter, "ASCENDING")).isEqualTo(SortDirection.ASCENDING);
+		assertThat(convert(parameter, " DESCENDING ")).isEqualTo(SortDirection.DESCENDING);
+		assertThat(convert(parameter, "")).isNull();
+	}
+
+	@Test
+	public void testLocalDate() throws NoSuchMethodException {
+		ParameterInfo parameter = parameter(2);
+		assertThat(convert(parameter, "2024-02-29")).isEqualTo(LocalDate.of(2024, 2, 29));
+	}
+
+	@Test
+	public void testCustomConverters() throws NoSuchMethodException {
+		DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+		conversionService.addConverter(String.class, SortDirection.class,
+				value -> value.startsWith("up") ? SortDirection.ASCENDING : SortDirection.DESCENDING);
+		conversionService.addConverter(String.class, LocalDate.class, value -> LocalDate.of(2000, 1, 1));
+		ParametersResolver converterResolver = new ParametersResolver(conversionService, this.jsonHandler);
+
+		ParameterInfo directionParameter = parameter(1);
+		assertThat(directionParameter.getConverter().convert("up", directionParameter, converterResolver))
+			.isEqualTo(SortDirection.ASCENDING);
+		assertThat(directionParameter.getConverter().convert("ASCENDING", directionParameter, converterResolver))
+			.isEqualTo(SortDirection.DESCENDING);
+
+		ParameterInfo dayParameter = parameter(2);
+		assertThat(dayParameter.getConverter().convert("2024-02-29", dayParameter, converterResolver))
+			.isEqualTo(LocalDate.of(2000, 1, 1));
+	}
+
+	@Test
+	public void testBeanList() throws NoSuchMethodException {
+		ParameterInfo parameter = parameter(4);
+		Object result = convert(parameter, List.of(Map.of("a", 1, "b", "one"), Map.of("a", 2, "b", "two")));
+		assertThat(result).isInstanceOf(List.class);
+		@SuppressWarnings("unchecked")
+		List<JsonTestBean> beans = (List<JsonTestBean>) result;
+		assertThat(beans).hasSize(2);
+		assertThat(beans.get(0).getB()).isEqualTo("one");
+		assertThat(beans.get(1).getA()).isEqualTo(2);
+		assertThat(parameter.getJavaType(this.jsonHandler.getMapper().getTypeFactory())).isNotNull();
+	}
+
+	@Test
+	public void testBeanListWithConverter() throws NoSuchMethodException {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(Map.class, JsonTestBean.class,
+				map -> new JsonTestBean(null, "converted " + map.get("b"), null, null, null));
+		ParametersResolver converterResolver = new ParametersResolver(conversionService, this.jsonHandler);
+
+		ParameterInfo parameter = parameter(4);
+		Object result = parameter.getConverter()
+			.convert(List.of(Map.of("a", 1, "b", "one")), parameter, converterResolver);
+		@SuppressWarnings("unchecked")
+		List<JsonTestBean> beans = (List<JsonTestBean>) result;
+		assertThat(beans).hasSize(1);
+		assertThat(beans.get(0).getA()).isNull();
+		assertThat(beans.get(0).getB()).isEqualTo("converted one");
+	}
+
+}
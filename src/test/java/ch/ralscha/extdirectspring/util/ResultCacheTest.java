@@ -0,0 +1,87 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import ch.ralscha.extdirectspring.util.ResultCache.CachedResult;
+
+public class ResultCacheTest {
+
+	private static String json(CachedResult cachedResult) {
+		return cachedResult != null ? cachedResult.json() : null;
+	}
+
+	@Test
+	public void testLookupAndPut() {
+		ResultCache cache = new ResultCache(TimeUnit.MINUTES.toNanos(1), 0, 10, 0);
+		assertThat(cache.lookup("key")).isNull();
+		cache.put("key", "[1,2]");
+		assertThat(cache.lookup("key")).isEqualTo(new CachedResult("[1,2]", false, false));
+		cache.put("key", "[3]");
+		assertThat(json(cache.lookup("key"))).isEqualTo("[3]");
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testExpiredEntry() {
+		ResultCache cache = new ResultCache(0, 0, 10, 0);
+		cache.put("key", "\"value\"");
+		assertThat(cache.lookup("key")).isNull();
+		assertThat(cache.getStaleHits()).isZero();
+	}
+
+	@Test
+	public void testStaleEntry() {
+		ResultCache cache = new ResultCache(0, TimeUnit.MINUTES.toNanos(1), 10, 0);
+		cache.put("key", "\"value\"");
+		assertThat(cache.lookup("key")).isEqualTo(new CachedResult("\"value\"", true, true));
+		assertThat(cache.lookup("key")).isEqualTo(new CachedResult("\"value\"", true, false));
+		cache.cancelRefresh("key");
+		assertThat(cache.lookup("key")).isEqualTo(new CachedResult("\"value\"", true, true));
+		assertThat(cache.getStaleHits()).isEqualTo(3);
+
+		// a refreshed entry is refreshed again once it expired
+		cache.put("key", "\"new\"");
+		assertThat(cache.lookup("key")).isEqualTo(new CachedResult("\"new\"", true, true));
+	}
+
+	@Test
+	public void testMaxEntries() {
+		ResultCache cache = new ResultCache(TimeUnit.MINUTES.toNanos(1), 0, 2, 0);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("c", "3");
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.lookup("a")).isNull();
+		assertThat(json(cache.lookup("b"))).isEqualTo("2");
+		assertThat(json(cache.lookup("c"))).isEqualTo("3");
+	}
+
+	@Test
+	public void testMaxSize() {
+		ResultCache cache = new ResultCache(TimeUnit.MINUTES.toNanos(1), 0, 100, 10);
+		cache.put("a", "\"aaaa\"");
+		cache.put("b", "\"bbbb\"");
+		assertThat(cache.lookup("a")).isNull();
+		assertThat(json(cache.lookup("b"))).isEqualTo("\"bbbb\"");
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ch.ralscha.extdirectspring.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+	private static final long TIMEOUT = 5000;
+
+	private final SingleFlight singleFlight = new SingleFlight();
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private final CompletableFuture<Object> follower = new CompletableFuture<>();
+
+	/**
+	 * Executes a call that starts an identical call in another thread and waits until
+	 * that thread blocks on the running call.
+	 */
+	private Object executeWithFollower(Object result) throws Exception {
+		return this.singleFlight.execute("key", () -> {
+			this.calls.incrementAndGet();
+			Thread thread = new Thread(() -> {
+				try {
+					this.follower.complete(this.singleFlight.execute("key", () -> {
+						this.calls.incrementAndGet();
+						return "follower";
+					}, TIMEOUT));
+				}
+				catch (Exception e) {
+					this.follower.completeExceptionally(e);
+				}
+			});
+			thread.start();
+			while (thread.getState() != Thread.State.TIMED_WAITING && !this.follower.isDone()) {
+				Thread.onSpinWait();
+			}
+			if (result instanceof Exception e) {
+				throw e;
+			}
+			return result;
+		}, TIMEOUT);
+	}
+
+	@Test
+	public void testFollowerSharesResult() throws Exception {
+		assertThat(executeWithFollower("leader")).isEqualTo("leader");
+		assertThat(this.follower.get()).isEqualTo("leader");
+		assertThat(this.calls).hasValue(1);
+		assertThat(this.singleFlight.size()).isZero();
+	}
+
+	@Test
+	public void testFollowerSharesException() throws Exception {
+		IllegalStateException exception = new IllegalStateException("failed");
+		assertThatThrownBy(() -> executeWithFollower(exception)).isSameAs(exception);
+		assertThatThrownBy(this.follower::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+		assertThat(this.calls).hasValue(1);
+		assertThat(this.singleFlight.size()).isZero();
+	}
+
+	@Test
+	public void testFollowerGivesUpAfterTimeout() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> {
+			try {
+				return this.singleFlight.execute("key", () -> {
+					started.countDown();
+					release.await();
+					return "leader";
+				}, TIMEOUT);
+			}
+			catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> this.singleFlight.execute("key", this.calls::incrementAndGet, 10))
+			.isInstanceOf(TimeoutException.class);
+		assertThat(this.calls).hasValue(0);
+
+		release.countDown();
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+		assertThat(this.singleFlight.size()).isZero();
+	}
+
+	@Test
+	public void testSequentialCallsAreExecuted() throws Exception {
+		assertThat(this.singleFlight.execute("key", this.calls::incrementAndGet, TIMEOUT)).isEqualTo(1);
+		assertThat(this.singleFlight.execute("key", this.calls::incrementAndGet, TIMEOUT)).isEqualTo(2);
+	}
+
+	@Test
+	public void testCompletionStageStaysInFlight() throws Exception {
+		CompletableFuture<String> pending = new CompletableFuture<>();
+		assertThat(this.singleFlight.execute("key", () -> pending, TIMEOUT)).isSameAs(pending);
+		assertThat(this.singleFlight.execute("key", () -> "other", TIMEOUT)).isSameAs(pending);
+		assertThat(this.singleFlight.size()).isEqualTo(1);
+		pending.complete("done");
+		assertThat(this.singleFlight.size()).isZero();
+	}
+
+}